@@ -0,0 +1,119 @@
+package ru.practicum.explorewithme.benchmarks;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.explorewithme.LocalDateTimeConverter;
+import ru.practicum.explorewithme.statistics.Statistic;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вставка пачки хитов через Hibernate с включённым hibernate.jdbc.batch_size: IDENTITY — прежний маппинг,
+ * при котором батчинг молча отключается, SEQUENCE — текущий маппинг Statistic с pooled-последовательностью.
+ * Результат в строках в секунду. По умолчанию H2 в памяти; для PostgreSQL:
+ * -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:6545/statist?reWriteBatchedInserts=true
+ * -Dbenchmark.jdbc-user=root -Dbenchmark.jdbc-password=root
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+    private static final int ROWS = 100;
+
+    @Param({"IDENTITY", "SEQUENCE"})
+    private GenerationType idGeneration;
+
+    private SessionFactory sessionFactory;
+    private LocalDateTime timestamp;
+
+    @Setup
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Statistic.class)
+                .addAnnotatedClass(IdentityStatistic.class)
+                .setProperty(AvailableSettings.URL, System.getProperty("benchmark.jdbc-url",
+                        "jdbc:h2:mem:bulk;DB_CLOSE_DELAY=-1"))
+                .setProperty(AvailableSettings.USER, System.getProperty("benchmark.jdbc-user", "sa"))
+                .setProperty(AvailableSettings.PASS, System.getProperty("benchmark.jdbc-password", ""))
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+                .buildSessionFactory();
+        timestamp = LocalDateTime.of(2022, 1, 1, 0, 0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            session.createQuery("delete from Statistic").executeUpdate();
+            session.createQuery("delete from IdentityStatistic").executeUpdate();
+            transaction.commit();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int insertHits() {
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            for (int i = 0; i < ROWS; i++) {
+                String uri = "/events/" + i;
+                session.persist(idGeneration == GenerationType.IDENTITY
+                        ? new IdentityStatistic("ewm-main-service", uri, "192.0.2.1", timestamp, i)
+                        : new Statistic("ewm-main-service", uri, "192.0.2.1", timestamp, i));
+            }
+            transaction.commit();
+        }
+        return ROWS;
+    }
+
+    @Entity(name = "IdentityStatistic")
+    @Table(name = "stats_identity")
+    public static class IdentityStatistic {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "app")
+        private String app;
+
+        @Column(name = "uri")
+        private String uri;
+
+        @Column(name = "ip")
+        private String ip;
+
+        @Column(name = "date_request")
+        @Convert(converter = LocalDateTimeConverter.class)
+        private LocalDateTime timestamp;
+
+        @Column(name = "event")
+        private long event;
+
+        protected IdentityStatistic() {
+        }
+
+        IdentityStatistic(String app, String uri, String ip, LocalDateTime timestamp, long event) {
+            this.app = app;
+            this.uri = uri;
+            this.ip = ip;
+            this.timestamp = timestamp;
+            this.event = event;
+        }
+    }
+}
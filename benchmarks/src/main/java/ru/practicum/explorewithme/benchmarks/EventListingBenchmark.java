@@ -0,0 +1,271 @@
+package ru.practicum.explorewithme.benchmarks;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.explorewithme.server.models.Category;
+import ru.practicum.explorewithme.server.models.Compilation;
+import ru.practicum.explorewithme.server.models.Event;
+import ru.practicum.explorewithme.server.models.Loc;
+import ru.practicum.explorewithme.server.models.User;
+import ru.practicum.explorewithme.server.utils.LocalDateTimeConverter;
+
+import javax.persistence.*;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Страница публичного списка событий (события с инициатором, категорией и местом): ENHANCED - Event из
+ * event-service, собранный с bytecode enhancement, description не читается; EAGER - тот же маппинг без
+ * enhancement, description приходит в каждой строке. Результат в страницах в секунду, выделение памяти на
+ * страницу - с -prof gc. При старте печатаются байты текстовых полей, полученные из базы на страницу, и память,
+ * которую занимает загруженная страница.
+ * По умолчанию встроенный PostgreSQL: H2 в памяти отдает строки, которые хранит сам, и разница в памяти не видна.
+ * Для своего PostgreSQL: -Dbenchmark.jdbc-url=jdbc:postgresql://localhost:6541/ewm
+ * -Dbenchmark.jdbc-user=root -Dbenchmark.jdbc-password=root
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventListingBenchmark {
+    private static final int EVENTS = 1000;
+    private static final int PAGE = 100;
+    private static final int RETAINED_PAGES = 20;
+    private static final String SENTENCE = "Лекция о городской архитектуре с прогулкой по историческому центру. ";
+
+    @Param({"ENHANCED", "EAGER"})
+    private Mapping mapping;
+
+    @Param({"500", "2000", "7000"})
+    private int descriptionLength;
+
+    private EmbeddedPostgres postgres;
+    private SessionFactory sessionFactory;
+
+    public enum Mapping {
+        ENHANCED("Event"),
+        EAGER("EagerEvent");
+
+        private final String entity;
+
+        Mapping(String entity) {
+            this.entity = entity;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        String url = System.getProperty("benchmark.jdbc-url");
+        String user = System.getProperty("benchmark.jdbc-user", "postgres");
+        if (url == null) {
+            postgres = EmbeddedPostgres.start();
+            url = postgres.getJdbcUrl("postgres", "postgres");
+        }
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Event.class)
+                .addAnnotatedClass(EagerEvent.class)
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Category.class)
+                .addAnnotatedClass(Loc.class)
+                .addAnnotatedClass(Compilation.class)
+                .setProperty(AvailableSettings.URL, url)
+                .setProperty(AvailableSettings.USER, user)
+                .setProperty(AvailableSettings.PASS, System.getProperty("benchmark.jdbc-password", ""))
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                //EntityChangeListener ждет ApplicationEventPublisher из Spring
+                .setProperty(AvailableSettings.JPA_CALLBACKS_ENABLED, "false")
+                .buildSessionFactory();
+        seed();
+        System.out.printf("%n%s, description %d: %d байт текстовых полей и %d байт памяти на страницу%n",
+                mapping, descriptionLength, textBytes(listPage()), retainedBytes());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        sessionFactory.close();
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Benchmark
+    public List<?> listPage() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery("select e from " + mapping.entity + " e join fetch e.initiator "
+                            + "join fetch e.category join fetch e.location where e.state = :state "
+                            + "order by e.eventDate, e.id", Object.class)
+                    .setParameter("state", ru.practicum.explorewithme.models.event.State.PUBLISHED)
+                    .setMaxResults(PAGE)
+                    .setReadOnly(true)
+                    .getResultList();
+        }
+    }
+
+    private void seed() {
+        String description = SENTENCE.repeat(descriptionLength / SENTENCE.length() + 1)
+                .substring(0, descriptionLength);
+        LocalDateTime now = LocalDateTime.of(2022, 1, 1, 0, 0);
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            //в миграциях description - text, hbm2ddl создает varchar(255)
+            session.createNativeQuery("alter table events alter column description type text").executeUpdate();
+            List<User> users = new ArrayList<>();
+            List<Category> categories = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                users.add(new User("user " + i, "user" + i + "@mail.ru"));
+                categories.add(new Category("category " + i));
+                session.persist(users.get(i));
+                session.persist(categories.get(i));
+            }
+            for (int i = 0; i < EVENTS; i++) {
+                Loc location = new Loc();
+                location.setLatitude(55.7f + i % 100 * 0.01f);
+                location.setLongitude(37.6f + i / 100 * 0.01f);
+                Event event = new Event();
+                event.setTitle("Событие " + i);
+                event.setAnnotation("Прогулка по центру города с экскурсоводом, номер " + i);
+                event.setDescription(description);
+                event.setInitiator(users.get(i % users.size()));
+                event.setCategory(categories.get(i % categories.size()));
+                event.setLocation(location);
+                event.setCreated(now);
+                event.setEventDate(now.plusHours(i));
+                event.setPublished(now);
+                event.setParticipantLimit(10);
+                event.setState(ru.practicum.explorewithme.models.event.State.PUBLISHED);
+                session.persist(event);
+                if (i % 50 == 49) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            transaction.commit();
+        }
+    }
+
+    /**
+     * Байты title, annotation и description в UTF-8; description учитывается, только если загружен.
+     */
+    private static long textBytes(List<?> page) {
+        long bytes = 0;
+        for (Object row : page) {
+            if (row instanceof Event) {
+                Event event = (Event) row;
+                bytes += utf8Length(event.getTitle()) + utf8Length(event.getAnnotation());
+                if (Hibernate.isPropertyInitialized(event, "description")) {
+                    bytes += utf8Length(event.getDescription());
+                }
+            } else {
+                EagerEvent event = (EagerEvent) row;
+                bytes += utf8Length(event.title) + utf8Length(event.annotation) + utf8Length(event.description);
+            }
+        }
+        return bytes;
+    }
+
+    private static long utf8Length(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Прирост занятой памяти после сборки мусора, пока удерживаются RETAINED_PAGES загруженных страниц.
+     */
+    private long retainedBytes() {
+        List<List<?>> pages = new ArrayList<>();
+        long before = usedHeapAfterGc();
+        for (int i = 0; i < RETAINED_PAGES; i++) {
+            pages.add(listPage());
+        }
+        long after = usedHeapAfterGc();
+        return pages.size() == RETAINED_PAGES ? (after - before) / RETAINED_PAGES : -1;
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            memory.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Маппинг events без enhancement: так Event загружался до ленивого description.
+     */
+    @Entity(name = "EagerEvent")
+    @Table(name = "events")
+    @Immutable
+    public static class EagerEvent {
+        @Id
+        private long id;
+
+        @Column(name = "title")
+        private String title;
+
+        @Column(name = "annotation")
+        private String annotation;
+
+        @Column(name = "description")
+        private String description;
+
+        @ManyToOne
+        @JoinColumn(name = "initiator")
+        private User initiator;
+
+        @ManyToOne
+        @JoinColumn(name = "category")
+        private Category category;
+
+        @Column(name = "created")
+        @Convert(converter = LocalDateTimeConverter.class)
+        private LocalDateTime created;
+
+        @Column(name = "event_date")
+        @Convert(converter = LocalDateTimeConverter.class)
+        private LocalDateTime eventDate;
+
+        @Column(name = "published")
+        @Convert(converter = LocalDateTimeConverter.class)
+        private LocalDateTime published;
+
+        @ManyToOne
+        @JoinColumn(name = "location")
+        private Loc location;
+
+        @Column(name = "paid")
+        private boolean paid;
+
+        @Column(name = "partition_limit")
+        private int participantLimit;
+
+        @Column(name = "moderation")
+        private boolean moderation;
+
+        @Enumerated(EnumType.ORDINAL)
+        private ru.practicum.explorewithme.models.event.State state;
+
+        @Column(name = "number_confirmed")
+        private int numberConfirmed;
+
+        @Column(name = "version")
+        private long version;
+
+        protected EagerEvent() {
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.explorewithme.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.explorewithme.models.compilation.CompilationDto;
+import ru.practicum.explorewithme.models.event.EventFullDto;
+import ru.practicum.explorewithme.models.event.EventShortDto;
+import ru.practicum.explorewithme.server.models.*;
+import ru.practicum.explorewithme.server.utils.mappers.MyMapper;
+import ru.practicum.explorewithme.server.utils.mappers.MyMapperImpl;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final MyMapper mapper = new MyMapperImpl();
+
+    private Event event;
+
+    @Setup
+    public void setUp() {
+        event = makeEvent(1);
+    }
+
+    @State(Scope.Benchmark)
+    public static class CompilationState {
+        @Param({"10", "50"})
+        private int compilationSize;
+
+        private Compilation compilation;
+
+        @Setup
+        public void setUp() {
+            Set<Event> events = new LinkedHashSet<>();
+            for (int i = 0; i < compilationSize; i++) {
+                events.add(makeEvent(i + 1));
+            }
+            compilation = new Compilation("Подборка", true, events);
+            compilation.setId(1);
+        }
+    }
+
+    @Benchmark
+    public EventFullDto toEventFull() {
+        return mapper.toEventFull(event);
+    }
+
+    @Benchmark
+    public EventShortDto toEventShort() {
+        return mapper.toEventShort(event);
+    }
+
+    @Benchmark
+    public CompilationDto toCompilationDto(CompilationState state) {
+        return mapper.toCompilationDto(state.compilation);
+    }
+
+    static Event makeEvent(long id) {
+        User initiator = new User("Инициатор " + id, "user" + id + "@mail.ru");
+        initiator.setId(id);
+
+        Event event = new Event();
+        event.setId(id);
+        event.setTitle("Событие " + id);
+        event.setAnnotation("Аннотация события, достаточно длинная для реального запроса " + id);
+        event.setDescription("Описание события ".repeat(20));
+        event.setInitiator(initiator);
+        event.setCategory(new Category(id % 10, "Категория " + id % 10));
+        event.setLocation(new Loc(id, 55.75f, 37.62f));
+        event.setCreated(LocalDateTime.now().minusDays(3));
+        event.setPublished(LocalDateTime.now().minusDays(1));
+        event.setEventDate(LocalDateTime.now().plusDays(10));
+        event.setState(ru.practicum.explorewithme.models.event.State.PUBLISHED);
+        event.setParticipantLimit(100);
+        event.setNumberConfirmed(42);
+        event.setModeration(true);
+        event.setViews(1000);
+        return event;
+    }
+}
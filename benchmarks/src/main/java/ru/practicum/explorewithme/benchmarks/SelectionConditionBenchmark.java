@@ -0,0 +1,53 @@
+package ru.practicum.explorewithme.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.explorewithme.models.event.EventSort;
+import ru.practicum.explorewithme.server.models.QEvent;
+import ru.practicum.explorewithme.server.utils.selectioncondition.SearchParam;
+import ru.practicum.explorewithme.server.utils.selectioncondition.SelectionConditionForAdmin;
+import ru.practicum.explorewithme.server.utils.selectioncondition.SelectionConditionForPublic;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectionConditionBenchmark {
+
+    private static final ru.practicum.explorewithme.models.event.State[] STATES = {
+            ru.practicum.explorewithme.models.event.State.PUBLISHED,
+            ru.practicum.explorewithme.models.event.State.PENDING
+    };
+
+    private final QEvent event = QEvent.event;
+
+    private SelectionConditionForPublic publicCondition;
+    private SelectionConditionForAdmin adminCondition;
+
+    @Setup
+    public void setUp() {
+        publicCondition = SelectionConditionForPublic.of("концерт", new int[]{1, 2, 3, 4, 5}, false,
+                "2022-01-01 00:00:00", "2030-01-01 00:00:00", true, null, null, null, EventSort.EVENT_DATE, 0, 10);
+        adminCondition = SelectionConditionForAdmin.of(new int[]{1, 2, 3}, STATES,
+                new int[]{1, 2, 3, 4, 5}, "2022-01-01 00:00:00", "2030-01-01 00:00:00", 0, 10);
+    }
+
+    @Benchmark
+    public SearchParam publicSearchParameters() {
+        return publicCondition.getSearchParameters(event);
+    }
+
+    @Benchmark
+    public SearchParam adminSearchParameters() {
+        return adminCondition.getSearchParameters(event);
+    }
+
+    @Benchmark
+    public SelectionConditionForPublic publicConditionParsing() {
+        return SelectionConditionForPublic.of("концерт", new int[]{1, 2, 3, 4, 5}, false,
+                "2022-01-01 00:00:00", "2030-01-01 00:00:00", true, null, null, null, EventSort.EVENT_DATE, 0, 10);
+    }
+}
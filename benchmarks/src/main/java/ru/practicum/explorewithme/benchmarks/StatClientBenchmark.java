@@ -0,0 +1,66 @@
+package ru.practicum.explorewithme.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.explorewithme.clients.stat.StatClient;
+import ru.practicum.explorewithme.models.statistics.ViewStats;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatClientBenchmark {
+
+    @Param({"1", "10"})
+    private int uriCount;
+
+    private StatClient client;
+    private String[] uris;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup
+    public void setUp() {
+        client = new StatClient(new UriExpandingRestTemplate());
+        uris = new String[uriCount];
+        for (int i = 0; i < uriCount; i++) {
+            uris[i] = "/events/" + (i + 1);
+        }
+        start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        end = LocalDateTime.of(2030, 1, 1, 0, 0);
+    }
+
+    @Benchmark
+    public ResponseEntity<List<ViewStats>> getStats() {
+        return client.getStats(start, end, uris, false);
+    }
+
+    /**
+     * Раскрывает шаблон URI так же, как настоящий RestTemplate, но не выполняет HTTP-запрос.
+     */
+    private static class UriExpandingRestTemplate extends RestTemplate {
+        UriExpandingRestTemplate() {
+            setUriTemplateHandler(new DefaultUriBuilderFactory("http://stats-server:9090"));
+        }
+
+        @Override
+        public <T> ResponseEntity<T> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity,
+                                              ParameterizedTypeReference<T> responseType, Map<String, ?> uriVariables) {
+            URI uri = getUriTemplateHandler().expand(url, uriVariables);
+            return ResponseEntity.ok().header("Location", uri.toString()).build();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.explorewithme.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.explorewithme.util.ViewsParamDecoder;
+
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ViewsParamDecoderBenchmark {
+
+    /**
+     * StatClient кодирует даты дважды, поэтому до stats-server они доходят закодированными один раз.
+     */
+    private static final String QUERY = "end=2030-01-01%2000%3A00%3A00&start=2022-01-01%2000%3A00%3A00" +
+            "&uris=/events/1,/events/2,/events/3&unique=false";
+
+    @Benchmark
+    public void decode(Blackhole blackhole) throws UnsupportedEncodingException {
+        ViewsParamDecoder decoder = new ViewsParamDecoder(QUERY);
+        blackhole.consume(decoder.getStart());
+        blackhole.consume(decoder.getEnd());
+    }
+}
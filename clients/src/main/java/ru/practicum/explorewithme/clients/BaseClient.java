@@ -1,110 +1,156 @@
 package ru.practicum.explorewithme.clients;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
 
+/**
+ * Неблокирующий клиент ewm-service. Тело ответа не разбирается: оно отдается потоком буферов и
+ * читается из соединения по мере того, как gateway успевает писать его клиенту.
+ */
 public class BaseClient {
-    private final RestTemplate rest;
+    /**
+     * Заголовки соединения ewm-service: gateway отдает тело по своему соединению, поэтому их нельзя отдавать клиенту.
+     */
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.CONNECTION, HttpHeaders.CONTENT_LENGTH, "Keep-Alive");
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    /**
+     * Время запросов gateway к ewm-service с тегами client, method, route и status.
+     */
+    public static final String REQUESTS_METRIC = "gateway.client.requests";
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final WebClient webClient;
+
+    public BaseClient(WebClient webClient) {
+        this.webClient = webClient;
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected ResponseEntity<Object> post(String path, Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Map<String, Object> parameters) {
         return post(path, null, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, @Nullable Long userId, @Nullable Map<String, Object> parameters,
-                                             @Nullable T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, @Nullable Long userId,
+                                                            @Nullable Map<String, Object> parameters,
+                                                            @Nullable T body) {
         return makeReqAndGetResp(path, HttpMethod.POST, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> get(String url) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String url) {
         return get(url, null, null);
     }
 
-    protected ResponseEntity<Object> get(String url, long userId) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String url, long userId) {
         return get(url, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String url, Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String url, Map<String, Object> parameters) {
         return get(url, null, parameters);
     }
 
-    protected ResponseEntity<Object> get(String path, @Nullable Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, @Nullable Long userId,
+                                                       @Nullable Map<String, Object> parameters) {
         return makeReqAndGetResp(path, HttpMethod.GET, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected ResponseEntity<Object> patch(String path, Long userId, Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId, Map<String, Object> parameters) {
         return patch(path, userId, parameters, null);
     }
 
-    protected ResponseEntity<Object> patch(String path, Long userId) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected ResponseEntity<Object> patch(String path) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path) {
         return patch(path, null, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected ResponseEntity<Object> patch(String path, Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Map<String, Object> parameters) {
         return patch(path, null, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, @Nullable Long userId, @Nullable Map<String, Object> parameters,
-                                               @Nullable T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, @Nullable Long userId,
+                                                             @Nullable Map<String, Object> parameters,
+                                                             @Nullable T body) {
         return makeReqAndGetResp(path, HttpMethod.PATCH, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, @Nullable T body) {
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> put(String path, @Nullable T body) {
         return makeReqAndGetResp(path, HttpMethod.PUT, null, null, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path) {
         return delete(path, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, @Nullable Map<String, Object> parameters) {
         return makeReqAndGetResp(path, HttpMethod.DELETE, null, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeReqAndGetResp(String path, HttpMethod method, Long userId,
-                                                         @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, makeHeaders(userId));
+    private <T> Mono<ResponseEntity<Flux<DataBuffer>>> makeReqAndGetResp(String path, HttpMethod method, Long userId,
+                                                                       @Nullable Map<String, Object> parameters,
+                                                                       @Nullable T body) {
+        return Mono.defer(() -> {
+            WebClient.RequestBodySpec request = webClient.method(method)
+                    .uri(path, parameters != null ? parameters : Map.of())
+                    .headers(headers -> headers.addAll(makeHeaders(userId)));
+            WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
 
-        ResponseEntity<Object> response;
-        try {
-            if (parameters != null) {
-                response = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                response = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
-        return prepareGatewayResponse(response);
+            Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+            return spec.retrieve()
+                    .onStatus(status -> true, response -> Mono.empty())  //ошибки ewm-service отдаются клиенту как есть
+                    .toEntityFlux(DataBuffer.class)
+                    .doOnSuccess(response -> stopTimer(sample, method, path,
+                            response == null ? "NONE" : String.valueOf(response.getStatusCodeValue())))
+                    .doOnError(e -> stopTimer(sample, method, path, "IO_ERROR"))
+                    //клиент gateway отключился или истек таймаут: без этого запрос пропадает из метрики
+                    .doOnCancel(() -> stopTimer(sample, method, path, "CANCELLED"))
+                    .map(BaseClient::prepareGatewayResponse);
+        });
+    }
+
+    private void stopTimer(Timer.Sample sample, HttpMethod method, String path, String status) {
+        sample.stop(Metrics.timer(REQUESTS_METRIC, "client", getClass().getSimpleName(),
+                "method", method.name(), "route", normalizeRoute(path), "status", status));
+    }
+
+    /**
+     * Шаблон пути без query-параметров, числовые идентификаторы заменены на {id}: иначе число тегов не ограничено.
+     */
+    static String normalizeRoute(String path) {
+        int query = path.indexOf('?');
+        String route = query < 0 ? path : path.substring(0, query);
+        route = NUMERIC_SEGMENT.matcher(route).replaceAll("/{id}");
+        return route.isEmpty() ? "/" : route;
     }
 
     protected HttpHeaders makeHeaders(Long userId) {
@@ -115,17 +161,13 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-
-        return responseBuilder.build();
+    private static ResponseEntity<Flux<DataBuffer>> prepareGatewayResponse(ResponseEntity<Flux<DataBuffer>> response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.getHeaders().forEach((name, values) -> {
+            if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                headers.addAll(name, values);
+            }
+        });
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
     }
 }
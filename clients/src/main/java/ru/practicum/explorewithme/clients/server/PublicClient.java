@@ -1,7 +1,10 @@
 package ru.practicum.explorewithme.clients.server;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.explorewithme.clients.BaseClient;
 
 
@@ -14,21 +17,34 @@ public class PublicClient extends BaseClient {
     private static final String COMPILATIONS = "/compilations";
     private static final String CATEGORIES = "/categories";
 
-    public PublicClient(RestTemplate rest) {
-        super(rest);
+    public PublicClient(WebClient webClient) {
+        super(webClient);
     }
 
-    public ResponseEntity<Object> getEvents(Map<String, Object> parameters) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getEvents(Map<String, Object> parameters) {
         String queryParam = "?text={text}&categories={categories}&paid={paid}&rangeStart={rangeStart}&" +
-                "rangeEnd={rangeEnd}&available={available}&sort={sort}&from={from}&size={size}";
+                "rangeEnd={rangeEnd}&available={available}&lat={lat}&lon={lon}&radius={radius}&sort={sort}&" +
+                "from={from}&size={size}";
+        if (parameters.get("facets") != null) {
+            queryParam += "&facets={facets}";  //без facets ewm-service отвечает прежним списком событий
+        }
         return get(EVENTS + queryParam, parameters);
     }
 
-    public ResponseEntity<Object> getEventById(long id) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getSuggestions(String text, String sort, int size) {
+        Map<String, Object> param = Map.of(
+                "text", text,
+                "sort", sort,
+                "size", size);
+        String queryParam = "?text={text}&sort={sort}&size={size}";
+        return get(EVENTS + "/suggest" + queryParam, param);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getEventById(long id) {
         return get(EVENTS + "/" + id);
     }
 
-    public ResponseEntity<Object> getCompilations(Boolean pinned, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getCompilations(Boolean pinned, int from, int size) {
         Map<String, Object> param = new HashMap<>();
         param.put("pinned", pinned);
         param.put("from", from);
@@ -38,11 +54,11 @@ public class PublicClient extends BaseClient {
         return get(COMPILATIONS + queryParam, param);
     }
 
-    public ResponseEntity<Object> getCompilationById(long id) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getCompilationById(long id) {
         return get(COMPILATIONS + "/" + id);
     }
 
-    public ResponseEntity<Object> getCategories(int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getCategories(int from, int size) {
         Map<String, Object> param = Map.of(
                 "from", from,
                 "size", size);
@@ -50,7 +66,7 @@ public class PublicClient extends BaseClient {
         return get(CATEGORIES + queryParam, param);
     }
 
-    public ResponseEntity<Object> getCategoryById(long categoryId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getCategoryById(long categoryId) {
         return get(CATEGORIES + "/" + categoryId);
     }
 
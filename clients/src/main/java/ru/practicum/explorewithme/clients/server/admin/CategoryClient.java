@@ -1,26 +1,29 @@
 package ru.practicum.explorewithme.clients.server.admin;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.explorewithme.clients.BaseClient;
 import ru.practicum.explorewithme.models.category.CategoryDto;
 import ru.practicum.explorewithme.models.category.NewCategoryDto;
 
 public class CategoryClient extends BaseClient {
 
-    public CategoryClient(RestTemplate rest) {
-        super(rest);
+    public CategoryClient(WebClient webClient) {
+        super(webClient);
     }
 
-    public ResponseEntity<Object> updateCategory(CategoryDto categoryDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateCategory(CategoryDto categoryDto) {
         return patch("", categoryDto);
     }
 
-    public ResponseEntity<Object> addCategory(NewCategoryDto categoryDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addCategory(NewCategoryDto categoryDto) {
         return post("", categoryDto);
     }
 
-    public ResponseEntity<Object> deleteCategory(long catId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteCategory(long catId) {
         return delete("/" + catId);
     }
 
@@ -1,38 +1,57 @@
 package ru.practicum.explorewithme.clients.server.admin;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.explorewithme.clients.BaseClient;
 import ru.practicum.explorewithme.models.compilation.NewCompilationDto;
 
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 
 public class CompilationsClient extends BaseClient {
 
-    public CompilationsClient(RestTemplate rest) {
-        super(rest);
+    public CompilationsClient(WebClient webClient) {
+        super(webClient);
     }
 
-    public ResponseEntity<Object> addCompilation(NewCompilationDto compilationDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addCompilation(NewCompilationDto compilationDto) {
         return post("", compilationDto);
     }
 
-    public ResponseEntity<Object> deleteCompilation(long compId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteCompilation(long compId) {
         return delete("/" + compId);
     }
 
-    public ResponseEntity<Object> deleteEventFromCompilation(long compId, long eventId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteEventFromCompilation(long compId, long eventId) {
         return delete("/" + compId + "/events/" + eventId);
     }
 
-    public ResponseEntity<Object> addEventFromCompilation(long compId, long eventId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addEventFromCompilation(long compId, long eventId) {
         return patch("/" + compId + "/events/" + eventId);
     }
 
-    public ResponseEntity<Object> unpinCompilation(long compId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addEventsToCompilation(long compId, long[] eventIds) {
+        return patch("/" + compId + "/events?ids={ids}", Map.of("ids", joinIds(eventIds)));
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteEventsFromCompilation(long compId, long[] eventIds) {
+        return delete("/" + compId + "/events?ids={ids}", Map.of("ids", joinIds(eventIds)));
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> unpinCompilation(long compId) {
         return delete("/" + compId + "/pin");
     }
 
-    public ResponseEntity<Object> pinCompilation(long compId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> pinCompilation(long compId) {
         return patch("/" + compId + "/pin");
     }
+
+    private static String joinIds(long[] ids) {
+        return Arrays.stream(ids).mapToObj(String::valueOf).collect(Collectors.joining(","));
+    }
 }
@@ -1,7 +1,10 @@
 package ru.practicum.explorewithme.clients.server.admin;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.explorewithme.clients.BaseClient;
 import ru.practicum.explorewithme.models.event.AdminUpdateEventRequest;
 
@@ -9,24 +12,24 @@ import java.util.Map;
 
 public class EventClient extends BaseClient {
 
-    public EventClient(RestTemplate rest) {
-        super(rest);
+    public EventClient(WebClient webClient) {
+        super(webClient);
     }
 
-    public ResponseEntity<Object> getEvents(Map<String, Object> param) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getEvents(Map<String, Object> param) {
         return get("?users={users}&states={states}&categories={categories}&rangeStart={rangeStart}&" +
                 "rangeEnd={rangeEnd}&from={from}&size={size}", param);
     }
 
-    public ResponseEntity<Object> updateEvent(long eventId, AdminUpdateEventRequest updateEventRequest) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateEvent(long eventId, AdminUpdateEventRequest updateEventRequest) {
         return put("/" + eventId, updateEventRequest);
     }
 
-    public ResponseEntity<Object> publishEvent(long eventId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> publishEvent(long eventId) {
         return patch("/" + eventId + "/publish");
     }
 
-    public ResponseEntity<Object> rejectEvent(long eventId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> rejectEvent(long eventId) {
         return patch("/" + eventId + "/reject");
     }
 }
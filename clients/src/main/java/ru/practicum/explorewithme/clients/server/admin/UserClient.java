@@ -1,8 +1,11 @@
 package ru.practicum.explorewithme.clients.server.admin;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.explorewithme.clients.BaseClient;
 import ru.practicum.explorewithme.models.user.NewUserRequest;
 
@@ -11,22 +14,22 @@ import java.util.Map;
 
 public class UserClient extends BaseClient {
 
-    public UserClient(RestTemplate rest) {
-        super(rest);
+    public UserClient(WebClient webClient) {
+        super(webClient);
     }
 
-    public ResponseEntity<Object> getUsers(@Nullable long[] ids, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUsers(@Nullable long[] ids, int from, int size) {
         Map<String, Object> param = new HashMap<>(Map.of("from", from, "size", size));
         param.put("ids", ids);
 
         return get("?ids={ids}&from={from}&size={size}", param);
     }
 
-    public ResponseEntity<Object> addUser(NewUserRequest newUserRequest) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addUser(NewUserRequest newUserRequest) {
         return post("", newUserRequest);
     }
 
-    public ResponseEntity<Object> deleteUser(long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteUser(long userId) {
         return delete("/" + userId);
     }
 }
@@ -1,7 +1,10 @@
 package ru.practicum.explorewithme.clients.server.priv;
 
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.explorewithme.clients.BaseClient;
 import ru.practicum.explorewithme.models.subscription.NewSubscriptionRequest;
 import ru.practicum.explorewithme.models.subscription.SubscriptionStatus;
@@ -13,19 +16,19 @@ import java.util.Map;
 
 public class SubscriptionClient extends BaseClient {
 
-    public SubscriptionClient(RestTemplate rest) {
-        super(rest);
+    public SubscriptionClient(WebClient webClient) {
+        super(webClient);
     }
 
-    public ResponseEntity<Object> addSubscribe(Long userId, Long publisherId, NewSubscriptionRequest request) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addSubscribe(Long userId, Long publisherId, NewSubscriptionRequest request) {
         return post("/subscriptions/" + publisherId + "/subscribe", userId, request);
     }
 
-    public ResponseEntity<Object> cancelSubscription(Long userId, Long subscriptionId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> cancelSubscription(Long userId, Long subscriptionId) {
         return patch("/subscriptions/" + subscriptionId + "/cancel", userId);
     }
 
-    public ResponseEntity<Object> acceptSubscribe(Long userId, Long subscriptionId, Boolean friendship) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> acceptSubscribe(Long userId, Long subscriptionId, Boolean friendship) {
         Map<String, Object> param = Map.of("friendship", friendship);
 
         String queryPath = "?friendship={friendship}";
@@ -33,7 +36,7 @@ public class SubscriptionClient extends BaseClient {
         return patch("/subscriptions/" + subscriptionId + "/accept" + queryPath, userId, param);
     }
 
-    public ResponseEntity<Object> getIncomingSubscriptions(Long userId, SubscriptionStatus status, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getIncomingSubscriptions(Long userId, SubscriptionStatus status, int from, int size) {
         Map<String, Object> param = new HashMap<>();
         param.put("status", status);
         param.put("from", from);
@@ -44,7 +47,7 @@ public class SubscriptionClient extends BaseClient {
         return get("/subscriptions/incoming" + queryPath, userId, param);
     }
 
-    public ResponseEntity<Object> getOutgoingSubscriptions(long userId, SubscriptionStatus status, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOutgoingSubscriptions(long userId, SubscriptionStatus status, int from, int size) {
         Map<String, Object> param = new HashMap<>();
         param.put("status", status);
         param.put("from", from);
@@ -55,7 +58,7 @@ public class SubscriptionClient extends BaseClient {
         return get("/subscriptions/outgoing" + queryPath, userId, param);
     }
 
-    public ResponseEntity<Object> getFollowing(long followerId, long userId, Boolean friends, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getFollowing(long followerId, long userId, Boolean friends, int from, int size) {
         Map<String, Object> param = Map.of(
                 "friends", friends,
                 "from", from,
@@ -67,7 +70,7 @@ public class SubscriptionClient extends BaseClient {
         return get("/" + userId + "/following" + queryPath, followerId, param);
     }
 
-    public ResponseEntity<Object> getFollowers(long followerId, long userId, Boolean friends, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getFollowers(long followerId, long userId, Boolean friends, int from, int size) {
         Map<String, Object> param = Map.of(
                 "friends", friends,
                 "from", from,
@@ -79,27 +82,27 @@ public class SubscriptionClient extends BaseClient {
         return get("/" + userId + "/followers" + queryPath, followerId, param);
     }
 
-    public ResponseEntity<Object> getUser(long followerId, long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUser(long followerId, long userId) {
         return get("/" + userId, followerId);
     }
 
-    public ResponseEntity<Object> addNewGroup(Long userId, NewGroupDto groupDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addNewGroup(Long userId, NewGroupDto groupDto) {
         return post("/groups", userId, groupDto);
     }
 
-    public ResponseEntity<Object> getSubscription(Long userId, Long subscriptionId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getSubscription(Long userId, Long subscriptionId) {
         return get("/subscriptions/" + subscriptionId, userId);
     }
 
-    public ResponseEntity<Object> getGroups(Long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getGroups(Long userId) {
         return get("/groups", userId);
     }
 
-    public ResponseEntity<Object> updateFollower(long publisherId, long followerId, UpdateFollowerDto follower) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateFollower(long publisherId, long followerId, UpdateFollowerDto follower) {
         return patch("/followers/" + followerId, publisherId, follower);
     }
 
-    public ResponseEntity<Object> getOwnFollowing(long userId, boolean friends, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOwnFollowing(long userId, boolean friends, int from, int size) {
         Map<String, Object> param = Map.of(
                 "friends", friends,
                 "from", from,
@@ -110,7 +113,7 @@ public class SubscriptionClient extends BaseClient {
         return get("/following" + queryPath, userId, param);
     }
 
-    public ResponseEntity<Object> getOwnFollowers(long userId, boolean friends, Long groupId, int from, int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOwnFollowers(long userId, boolean friends, Long groupId, int from, int size) {
         Map<String, Object> param = new HashMap<>();
         param.put("friends", friends);
         param.put("groupId", groupId);
@@ -120,4 +123,13 @@ public class SubscriptionClient extends BaseClient {
         String queryPath = "?friends={friends}&groupId={groupId}&from={from}&size={size}";
         return get("/followers" + queryPath, userId, param);
     }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getFeed(long userId, Long beforeId, int size) {
+        Map<String, Object> param = new HashMap<>();
+        param.put("beforeId", beforeId);
+        param.put("size", size);
+
+        String queryPath = "?beforeId={beforeId}&size={size}";
+        return get("/feed" + queryPath, userId, param);
+    }
 }
@@ -1,20 +1,29 @@
 package ru.practicum.explorewithme.clients.stat;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import ru.practicum.explorewithme.models.statistics.EndpointHit;
 import ru.practicum.explorewithme.models.statistics.ViewStats;
 
 import java.io.UnsupportedEncodingException;
+import java.net.SocketTimeoutException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 public class StatClient {
+    /**
+     * Время вызовов stats-server с тегами operation (hit, stats) и outcome (success, error, timeout).
+     */
+    public static final String REQUESTS_METRIC = "stats.client.requests";
 
     private RestTemplate rest;
 
@@ -24,7 +33,12 @@ public class StatClient {
 
 
     public ResponseEntity<EndpointHit> addHit(EndpointHit endpointHit) {
-        return post("/hit", endpointHit);
+        return timed("hit", () -> post("/hit", endpointHit));
+    }
+
+    public ResponseEntity<Void> addHits(List<EndpointHit> endpointHits) {
+        return timed("hit_batch", () -> rest.exchange("/hit/batch", HttpMethod.POST,
+                new HttpEntity<>(endpointHits, makeHeaders()), Void.class));
     }
 
     public ResponseEntity<List<ViewStats>> getStats(LocalDateTime start, LocalDateTime end, String[] uris, Boolean unique) {
@@ -47,7 +61,7 @@ public class StatClient {
 
         String path = "/stats?" + encodeDate + "&uris={uris}&unique={unique}";
 
-        return get(path, otherParam);
+        return timed("stats", () -> get(path, otherParam));
     }
 
     private static String encodeValue(String value) throws UnsupportedEncodingException {
@@ -59,17 +73,37 @@ public class StatClient {
         return date.format(formatter);
     }
 
+    private static <T> ResponseEntity<T> timed(String operation, Supplier<ResponseEntity<T>> call) {
+        Timer.Sample sample = Timer.start(Metrics.globalRegistry);
+        String outcome = "error";
+        try {
+            ResponseEntity<T> response = call.get();
+            outcome = response.getStatusCode().isError() ? "error" : "success";
+            return response;
+        } catch (ResourceAccessException e) {
+            if (e.getRootCause() instanceof SocketTimeoutException) {
+                outcome = "timeout";
+            }
+            throw e;
+        } finally {
+            sample.stop(Metrics.timer(REQUESTS_METRIC, "operation", operation, "outcome", outcome));
+        }
+    }
+
     private ResponseEntity<List<ViewStats>> get(String path, Map<String, Object> parameters) {
         return rest.exchange(path, HttpMethod.GET, null, new ParameterizedTypeReference<>() {
         }, parameters);
     }
 
     private ResponseEntity<EndpointHit> post(String path, EndpointHit body) {
+        HttpEntity<EndpointHit> requestEntity = new HttpEntity<>(body, makeHeaders());
+        return rest.exchange(path, HttpMethod.POST, requestEntity, EndpointHit.class);
+    }
+
+    private static HttpHeaders makeHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-
-        HttpEntity<EndpointHit> requestEntity = new HttpEntity<>(body, headers);
-        return rest.exchange(path, HttpMethod.POST, requestEntity, EndpointHit.class);
+        return headers;
     }
 }
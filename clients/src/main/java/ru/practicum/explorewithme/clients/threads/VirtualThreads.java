@@ -0,0 +1,38 @@
+package ru.practicum.explorewithme.clients.threads;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Доступ к виртуальным потокам без компиляции под JDK 21: проект собирается под Java 11, поэтому
+ * Executors.newVirtualThreadPerTaskExecutor вызывается через reflection и отсутствует на старых JDK.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return factoryMethod().isPresent();
+    }
+
+    public static Optional<ExecutorService> newPerTaskExecutor() {
+        return factoryMethod().map(method -> {
+            try {
+                return (ExecutorService) method.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Не удалось создать executor виртуальных потоков", e);
+            }
+        });
+    }
+
+    private static Optional<Method> factoryMethod() {
+        try {
+            return Optional.of(Executors.class.getMethod("newVirtualThreadPerTaskExecutor"));
+        } catch (NoSuchMethodException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.explorewithme.clients.threads;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Переводит обработку запросов Tomcat на виртуальные потоки. Свойство совпадает с Spring Boot 3.2, где
+ * этот режим встроен. Исходящие вызовы RestTemplate блокирующие и выполняются в потоке запроса.
+ * Подключается автоконфигурацией в сервисах на Tomcat; gateway на Netty не затрагивает.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(name = "org.apache.catalina.startup.Tomcat")
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsCustomizer() {
+        Optional<ExecutorService> executor = VirtualThreads.newPerTaskExecutor();
+        if (executor.isEmpty()) {
+            log.warn("Виртуальные потоки недоступны в Java {}, используется пул потоков Tomcat",
+                    System.getProperty("java.version"));
+            return protocolHandler -> {
+            };
+        }
+        log.info("Запросы обрабатываются в виртуальных потоках");
+        return protocolHandler -> protocolHandler.setExecutor(executor.get());
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.explorewithme.clients.tracing;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Локальный экспортер спанов без внешнего коллектора. Спаны копятся до завершения корневого спана сервиса;
+ * если запрос оказался медленнее порога, в лог выводится дерево спанов со смещениями и длительностями.
+ */
+public class SlowTraceLogger extends SpanHandler {
+    private static final Logger log = LoggerFactory.getLogger(SlowTraceLogger.class);
+
+    private static final int MAX_PENDING_TRACES = 10_000;
+
+    private static final int MAX_SPANS_PER_TRACE = 500;
+
+    private final long thresholdMicros;
+
+    private final Map<Long, List<MutableSpan>> pending = new ConcurrentHashMap<>();
+
+    public SlowTraceLogger(Duration threshold) {
+        this.thresholdMicros = threshold.toNanos() / 1000;
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        long rootId = context.localRootId();
+        if (rootId != context.spanId()) {
+            if (cause == Cause.FINISHED) {
+                if (pending.size() >= MAX_PENDING_TRACES) {
+                    pending.clear();
+                }
+                List<MutableSpan> spans = pending.computeIfAbsent(rootId,
+                        id -> Collections.synchronizedList(new ArrayList<>()));
+                if (spans.size() < MAX_SPANS_PER_TRACE) {
+                    spans.add(span);
+                }
+            }
+            return true;
+        }
+
+        List<MutableSpan> children = pending.remove(rootId);
+        if (cause == Cause.FINISHED && duration(span) >= thresholdMicros && log.isWarnEnabled()) {
+            List<MutableSpan> spans = new ArrayList<>();
+            spans.add(span);
+            if (children != null) {
+                synchronized (children) {
+                    spans.addAll(children);
+                }
+            }
+            log.warn("Slow trace {} took {} ms:{}", span.traceId(), millis(duration(span)), format(span, spans));
+        }
+        return true;
+    }
+
+    private static String format(MutableSpan root, List<MutableSpan> spans) {
+        spans.sort(Comparator.comparingLong(MutableSpan::startTimestamp));
+        Map<String, Integer> depths = new HashMap<>();
+        StringBuilder tree = new StringBuilder();
+        for (MutableSpan span : spans) {
+            int depth = span == root ? 0 : depths.getOrDefault(span.parentId(), 0) + 1;
+            depths.put(span.id(), depth);
+
+            tree.append(System.lineSeparator())
+                    .append("  ".repeat(depth + 1))
+                    .append('+').append(millis(span.startTimestamp() - root.startTimestamp())).append(" ms ")
+                    .append(millis(duration(span))).append(" ms ")
+                    .append(span.kind() == null ? "LOCAL" : span.kind()).append(' ')
+                    .append(span.name());
+            String path = span.tag("http.path");
+            if (path != null) {
+                tree.append(' ').append(path);
+            }
+            if (span.error() != null) {
+                tree.append(" error=").append(span.error().getClass().getSimpleName());
+            } else if (span.tag("error") != null) {
+                tree.append(" error=").append(span.tag("error"));
+            }
+        }
+        return tree.toString();
+    }
+
+    private static long duration(MutableSpan span) {
+        return span.finishTimestamp() - span.startTimestamp();
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+}
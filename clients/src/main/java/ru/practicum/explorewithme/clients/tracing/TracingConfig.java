@@ -0,0 +1,24 @@
+package ru.practicum.explorewithme.clients.tracing;
+
+import brave.handler.SpanHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+/**
+ * Подключается автоконфигурацией во всех сервисах, где задан tracing.slow-trace-threshold.
+ * Обрабатывается до Sleuth: без SpanHandler к этому моменту Sleuth ставит Sampler.NEVER_SAMPLE
+ * и spring.sleuth.sampler.probability не действует.
+ */
+@AutoConfiguration(beforeName = "org.springframework.cloud.sleuth.autoconfig.brave.BraveAutoConfiguration")
+@ConditionalOnProperty(name = "tracing.slow-trace-threshold")
+public class TracingConfig {
+
+    @Bean
+    public SpanHandler slowTraceLogger(@Value("${tracing.slow-trace-threshold}") Duration threshold) {
+        return new SlowTraceLogger(threshold);
+    }
+}
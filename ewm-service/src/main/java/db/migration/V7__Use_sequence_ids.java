@@ -0,0 +1,42 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Переводит первичные ключи с identity на последовательности с шагом 50 (pooled-оптимизатор Hibernate),
+ * чтобы вставки могли собираться в JDBC-батчи. Последовательность начинается с max(id) + 50: первый блок
+ * Hibernate — (max(id), max(id) + 50], существующие id остаются как есть. Default колонки сохраняется
+ * для native insert ... select в friend_feed.
+ * Миграция на Java, потому что начальное значение вычисляется, а setval нет в H2.
+ */
+public class V7__Use_sequence_ids extends BaseJavaMigration {
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABLES = List.of("users", "locations", "categories", "events",
+            "participation_requests", "compilations", "subscription", "groups", "followers", "friend_feed");
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            for (String table : TABLES) {
+                long maxId;
+                try (ResultSet rs = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+                    rs.next();
+                    maxId = rs.getLong(1);
+                }
+                String sequence = table + "_id_seq";
+                statement.execute("alter table " + table + " alter column id drop identity");
+                statement.execute("create sequence " + sequence + " start with " + (maxId + ALLOCATION_SIZE)
+                        + " increment by " + ALLOCATION_SIZE);
+                statement.execute("alter table " + table + " alter column id set default nextval('" + sequence
+                        + "')");
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import ru.practicum.explorewithme.server.utils.geo.GeoHash;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Добавляет locations.geohash с индексом для поиска событий рядом и заполняет его для существующих мест;
+ * индекс events.location - чтобы от найденных мест перейти к событиям.
+ * Миграция на Java, потому что geohash вычисляется так же, как в Loc. В PostgreSQL индекс с varchar_pattern_ops:
+ * иначе like 'prefix%' не использует индекс при локали, отличной от C.
+ */
+public class V8__Add_location_geohash extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table locations add column if not exists geohash varchar(12)");
+            statement.execute("create index if not exists locations_geohash_idx on locations (geohash"
+                    + (postgres ? " varchar_pattern_ops)" : ")"));
+            statement.execute("create index if not exists events_location_idx on events (location)");
+
+            try (ResultSet rs = statement.executeQuery("select id, lat, lon from locations");
+                 PreparedStatement update = connection.prepareStatement(
+                         "update locations set geohash = ? where id = ?")) {
+                while (rs.next()) {
+                    update.setString(1, GeoHash.encode(rs.getFloat(2), rs.getFloat(3), GeoHash.PRECISION));
+                    update.setLong(2, rs.getLong(1));
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+        }
+    }
+}
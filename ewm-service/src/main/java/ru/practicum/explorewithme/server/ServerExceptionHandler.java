@@ -2,6 +2,7 @@ package ru.practicum.explorewithme.server;
 
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -19,6 +20,13 @@ public class ServerExceptionHandler {
                 HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler({ObjectOptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiError optimisticLockException(ObjectOptimisticLockingFailureException e) {
+        return new ApiError(e.getStackTrace(), e.getMessage(), "The object was modified concurrently",
+                HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler({RequestConditionException.class})
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ApiError requestConditionException(RequestConditionException e) {
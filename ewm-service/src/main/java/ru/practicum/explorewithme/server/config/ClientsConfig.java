@@ -1,5 +1,6 @@
 package ru.practicum.explorewithme.server.config;
 
+import org.apache.http.impl.client.HttpClients;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
@@ -10,12 +11,23 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.explorewithme.clients.stat.StatClient;
 
+import java.time.Duration;
+
 @Configuration
 public class ClientsConfig {
 
     @Value("${stats-server.url}")
     private String statsUrl;
 
+    @Value("${stats-server.connect-timeout}")
+    private Duration statsConnectTimeout;
+
+    @Value("${stats-server.read-timeout}")
+    private Duration statsReadTimeout;
+
+    @Value("${stats-server.max-connections}")
+    private int statsMaxConnections;
+
     private final RestTemplateBuilder builder;
 
     @Autowired
@@ -27,7 +39,13 @@ public class ClientsConfig {
     public StatClient makeStatsClient() {
         RestTemplate template = builder
                     .uriTemplateHandler(new DefaultUriBuilderFactory(statsUrl))  //фабрика для построения URI
-                    .requestFactory(HttpComponentsClientHttpRequestFactory::new)  //фабрика для создания HTTPRequest
+                    .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                            .useSystemProperties()
+                            .setMaxConnTotal(statsMaxConnections)
+                            .setMaxConnPerRoute(statsMaxConnections)
+                            .build()))  //фабрика для создания HTTPRequest
+                    .setConnectTimeout(statsConnectTimeout)
+                    .setReadTimeout(statsReadTimeout)
                     .build();
 
         return new StatClient(template);
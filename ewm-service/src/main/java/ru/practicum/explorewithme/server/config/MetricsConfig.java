@@ -0,0 +1,39 @@
+package ru.practicum.explorewithme.server.config;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.explorewithme.server.utils.metrics.ConnectionHoldInterceptor;
+import ru.practicum.explorewithme.server.utils.metrics.ConnectionHoldListener;
+import ru.practicum.explorewithme.server.utils.metrics.QueryCountInspector;
+import ru.practicum.explorewithme.server.utils.metrics.QueryCountInterceptor;
+
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final QueryCountInterceptor queryCountInterceptor;
+
+    private final ConnectionHoldInterceptor connectionHoldInterceptor;
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new QueryCountInspector());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer connectionHoldCustomizer() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                ConnectionHoldListener.class.getName());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(queryCountInterceptor);
+        registry.addInterceptor(connectionHoldInterceptor);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.explorewithme.server.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.explorewithme.server.utils.routing.ReadYourWrites;
+import ru.practicum.explorewithme.server.utils.routing.ReadYourWritesInterceptor;
+import ru.practicum.explorewithme.server.utils.routing.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Реплики для чтения включаются переменной REPLICA_URLS (JDBC URL через запятую). Без нее используется
+ * автоконфигурация Spring Boot с одним primary.
+ */
+@Configuration
+@ConditionalOnExpression("!'${replica.urls:}'.isBlank()")
+public class ReplicaRoutingConfig implements WebMvcConfigurer {
+
+    @Value("${replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${replica.max-lag}")
+    private Duration maxLag;
+
+    @Value("${replica.lag-check-interval}")
+    private Duration lagCheckInterval;
+
+    @Value("${replica.lag-query}")
+    private String lagQuery;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             TaskScheduler taskScheduler) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                    .url(replicaUrls.get(i).trim()).build();
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(Metrics.globalRegistry));
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                new ReadYourWrites(maxLag.plus(lagCheckInterval)), maxLag, lagCheckInterval, lagQuery);
+        taskScheduler.scheduleWithFixedDelay(routing::checkLag, lagCheckInterval);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor());
+    }
+}
@@ -5,67 +5,136 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.explorewithme.models.category.CategoryDto;
 import ru.practicum.explorewithme.models.compilation.CompilationDto;
 import ru.practicum.explorewithme.models.event.EventFullDto;
+import ru.practicum.explorewithme.models.event.EventSearchDto;
 import ru.practicum.explorewithme.models.event.EventShortDto;
 import ru.practicum.explorewithme.models.event.EventSort;
+import ru.practicum.explorewithme.models.event.SuggestionsDto;
 import ru.practicum.explorewithme.server.services.PublicService;
+import ru.practicum.explorewithme.server.utils.selectioncondition.EventSearchRequest;
 import ru.practicum.explorewithme.server.utils.selectioncondition.SelectionConditionForPublic;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequiredArgsConstructor
 public class PublicController {
 
+    private static final int EVENT_IDS_MAX_LENGTH = 4096;
+
     private final PublicService service;
 
     @GetMapping("/events")
-    public List<EventShortDto> getEvents(@RequestParam(name = "text", required = false) String text,
-                                         @RequestParam(name = "categories", required = false) int[] categories,
-                                         @RequestParam(name = "paid", required = false) Boolean paid,
-                                         @RequestParam(name = "rangeStart", required = false) String rangeStart,
-                                         @RequestParam(name = "rangeEnd", required = false) String rangeEnd,
-                                         @RequestParam(name = "available", required = false) Boolean available,
-                                         @RequestParam(name = "sort", defaultValue = "EVENT_DATE") EventSort sort,
-                                         @RequestParam(name = "from", defaultValue = "0") int from,
-                                         @RequestParam(name = "size", defaultValue = "10") int size, HttpServletRequest request) {
+    public List<EventShortDto> getEvents(EventSearchRequest search, HttpServletRequest request,
+                                         HttpServletResponse response) {
+        List<EventShortDto> events = service.getEvents(SelectionConditionForPublic.of(search), request);
+        setEventIds(response, events);
+        return events;
+    }
 
-        SelectionConditionForPublic condition = SelectionConditionForPublic.of(text, categories, paid, rangeStart,
-                rangeEnd, available, sort, from, size);
+    /**
+     * То же, что getEvents, плюс число событий на каждое значение полей facets при остальных условиях.
+     */
+    @GetMapping(value = "/events", params = "facets")
+    public EventSearchDto getEventsWithFacets(EventSearchRequest search, HttpServletRequest request,
+                                              HttpServletResponse response) {
+        EventSearchDto page = service.getEventsWithFacets(SelectionConditionForPublic.of(search), search.getFacets(),
+                request);
+        setEventIds(response, page.getEvents());
+        return page;
+    }
 
-        return service.getEvents(condition, request);
+    /**
+     * Подсказки для ввода text: категории и события, в названии которых есть слово, начинающееся с text.
+     */
+    @GetMapping("/events/suggest")
+    public SuggestionsDto getSuggestions(@RequestParam(name = "text") String text,
+                                         @RequestParam(name = "sort", defaultValue = "VIEWS") EventSort sort,
+                                         @RequestParam(name = "size", defaultValue = "10") int size) {
+        return service.getSuggestions(text, sort, size);
     }
 
+    /**
+     * Если If-None-Match совпал с версией события, отвечает 304 без загрузки события из базы и запроса просмотров.
+     */
     @GetMapping("/events/{eventId}")
-    public EventFullDto getEventById(@PathVariable(name = "eventId") long eventId, HttpServletRequest request) {
+    public EventFullDto getEventById(@PathVariable(name = "eventId") long eventId, HttpServletRequest request,
+                                     WebRequest webRequest) {
+        if (isNotModified(service.getEventETag(eventId), webRequest)) {
+            service.registerEventView(request);
+            return null;
+        }
         return service.getEventById(eventId, request);
     }
 
     @GetMapping("/compilations")
     public List<CompilationDto> getCompilations(@RequestParam(name = "pinned", required = false) Boolean pinned,
                                                 @RequestParam(name = "from", defaultValue = "0") int from,
-                                                @RequestParam(name = "size", defaultValue = "10") int size) {
+                                                @RequestParam(name = "size", defaultValue = "10") int size,
+                                                WebRequest webRequest) {
+        if (webRequest.checkNotModified(service.getCompilationsETag(pinned, from, size))) {
+            return null;
+        }
         return service.getCompilations(pinned, from, size);
     }
 
     @GetMapping("/compilations/{compilationId}")
-    public CompilationDto getCompilationById(@PathVariable(name = "compilationId") Long compilationId) {
+    public CompilationDto getCompilationById(@PathVariable(name = "compilationId") Long compilationId,
+                                             WebRequest webRequest) {
+        if (isNotModified(service.getCompilationETag(compilationId), webRequest)) {
+            return null;
+        }
         return service.getCompilationById(compilationId);
     }
 
     @GetMapping("/categories")
     public List<CategoryDto> getCategories(@RequestParam(name = "from", defaultValue = "0") int from,
-                                           @RequestParam(name = "size", defaultValue = "10") int size) {
+                                           @RequestParam(name = "size", defaultValue = "10") int size,
+                                           WebRequest webRequest) {
+        if (webRequest.checkNotModified(service.getCategoriesETag(from, size))) {
+            return null;
+        }
         return service.getCategories(from, size);
     }
 
     @GetMapping("/categories/{categoryId}")
-    public CategoryDto getCategoryById(@PathVariable(name = "categoryId") long categoryId) {
+    public CategoryDto getCategoryById(@PathVariable(name = "categoryId") long categoryId, WebRequest webRequest) {
+        if (isNotModified(service.getCategoryETag(categoryId), webRequest)) {
+            return null;
+        }
         return service.getCategoryById(categoryId);
     }
 
+    /**
+     * Id событий страницы для записи просмотров в gateway. Список ограничен EVENT_IDS_MAX_LENGTH символами, чтобы
+     * заголовки ответа не превысили предел Tomcat и клиента gateway (8 КБ): у больших страниц просмотры
+     * записываются только для первых событий.
+     */
+    private static void setEventIds(HttpServletResponse response, List<EventShortDto> events) {
+        StringBuilder ids = new StringBuilder();
+        for (EventShortDto event : events) {
+            String id = String.valueOf(event.getId());
+            if (ids.length() + id.length() + 1 > EVENT_IDS_MAX_LENGTH) {
+                break;
+            }
+            if (ids.length() > 0) {
+                ids.append(',');
+            }
+            ids.append(id);
+        }
+        response.setHeader(EventShortDto.EVENT_IDS_HEADER, ids.toString());
+    }
 
+    /**
+     * Пустой ETag означает, что сущности нет: ответ с ошибкой сформирует обычный обработчик.
+     */
+    private static boolean isNotModified(Optional<String> eTag, WebRequest webRequest) {
+        return eTag.isPresent() && webRequest.checkNotModified(eTag.get());
+    }
 }
@@ -35,6 +35,18 @@ public class CompilationsController {
         service.addEventToCompilation(compId, eventId);
     }
 
+    @PatchMapping("/{compId}/events")
+    public void addEventsToCompilation(@PathVariable(name = "compId") long compId,
+                                       @RequestParam(name = "ids") long[] eventIds) {
+        service.addEventsToCompilation(compId, eventIds);
+    }
+
+    @DeleteMapping("/{compId}/events")
+    public void deleteEventsFromCompilation(@PathVariable(name = "compId") long compId,
+                                            @RequestParam(name = "ids") long[] eventIds) {
+        service.deleteEventsFromCompilation(compId, eventIds);
+    }
+
     @DeleteMapping("/{compId}/pin")
     public void unpinCompilation(@PathVariable(name = "compId") long compId) {
         service.unpinCompilation(compId);
@@ -0,0 +1,23 @@
+package ru.practicum.explorewithme.server.controllers.priv;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.explorewithme.models.subscription.feed.FeedEntryDto;
+import ru.practicum.explorewithme.server.services.priv.PrivateFeedService;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/users/feed")
+public class PrivateFeedController {
+
+    private final PrivateFeedService feedService;
+
+    @GetMapping
+    public List<FeedEntryDto> getFeed(@RequestHeader("X-EWM-User-Id") long userId,
+                                      @RequestParam(name = "beforeId", required = false) Long beforeId,
+                                      @RequestParam(name = "size", defaultValue = "10") int size) {
+        return feedService.getFeed(userId, beforeId, size);
+    }
+}
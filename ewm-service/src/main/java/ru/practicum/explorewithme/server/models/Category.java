@@ -1,6 +1,7 @@
 package ru.practicum.explorewithme.server.models;
 
 import lombok.*;
+import ru.practicum.explorewithme.server.utils.cache.EntityChangeListener;
 
 import javax.persistence.*;
 import java.util.Set;
@@ -11,6 +12,7 @@ import java.util.Set;
 @EqualsAndHashCode(of = "id")
 @ToString
 @Table(name = "categories")
+@EntityListeners(EntityChangeListener.class)
 @NoArgsConstructor
 public class Category {
     public Category(String name) {
@@ -23,12 +25,20 @@ public class Category {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_id_seq")
+    @SequenceGenerator(name = "categories_id_seq", sequenceName = "categories_id_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "name")
     private String name;
 
+    /**
+     * Растет при каждом изменении; по нему строятся ETag публичных эндпоинтов.
+     */
+    @Version
+    @Column(name = "version")
+    private long version;
+
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "category")
     private Set<Event> events;
 
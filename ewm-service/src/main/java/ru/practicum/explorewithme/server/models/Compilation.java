@@ -2,18 +2,20 @@ package ru.practicum.explorewithme.server.models;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import ru.practicum.explorewithme.server.utils.cache.EntityChangeListener;
 
 import javax.persistence.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Set;
 
 @Entity
 @Data
 @Table(name = "compilations")
+@EntityListeners(EntityChangeListener.class)
 @NoArgsConstructor
 public class Compilation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "compilations_id_seq")
+    @SequenceGenerator(name = "compilations_id_seq", sequenceName = "compilations_id_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "title")
@@ -22,28 +24,25 @@ public class Compilation {
     @Column(name = "pinned")
     private boolean pinned;
 
+    /**
+     * Растет при каждом изменении; по нему строятся ETag публичных эндпоинтов.
+     */
+    @Version
+    @Column(name = "version")
+    private long version;
+
     @ManyToMany
+    @OrderBy("id")
     @JoinTable(
             name = "events_compilations",
             joinColumns = @JoinColumn(name = "compilation_id"),
             inverseJoinColumns = @JoinColumn(name = "event_id")
     )
-    private List<Event> events;
+    private Set<Event> events;
 
-    public Compilation(String title, boolean pinned, List<Event> events) {
+    public Compilation(String title, boolean pinned, Set<Event> events) {
         this.title = title;
         this.pinned = pinned;
         this.events = events;
     }
-
-    public void deleteEvent(Event event) {
-        events.remove(event);
-    }
-
-    public void addEvent(Event event) {
-        if (events == null) {
-            events = new ArrayList<>();
-        }
-        events.add(event);
-    }
 }
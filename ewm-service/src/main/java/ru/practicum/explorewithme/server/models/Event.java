@@ -4,6 +4,7 @@ import lombok.*;
 import org.hibernate.annotations.Cascade;
 import ru.practicum.explorewithme.models.event.State;
 import ru.practicum.explorewithme.server.utils.LocalDateTimeConverter;
+import ru.practicum.explorewithme.server.utils.cache.EntityChangeListener;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -11,6 +12,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "events")
+@EntityListeners(EntityChangeListener.class)
 @Getter
 @Setter
 @EqualsAndHashCode(of = "id")
@@ -18,7 +20,8 @@ import java.util.Set;
 @NoArgsConstructor
 public class Event {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_id_seq")
+    @SequenceGenerator(name = "events_id_seq", sequenceName = "events_id_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "title")
@@ -27,7 +30,14 @@ public class Event {
     @Column(name = "annotation")
     private String annotation;
 
+    /**
+     * Загружается отдельным запросом при первом обращении (bytecode enhancement): списки и проверки
+     * существования события его не читают. Для EventFullDto событие читается через *WithDescription-методы
+     * репозитория.
+     */
+    @Basic(fetch = FetchType.LAZY)
     @Column(name = "description")
+    @ToString.Exclude
     private String description;
 
     @ManyToOne
@@ -68,9 +78,6 @@ public class Event {
     @Enumerated(EnumType.ORDINAL)
     private State state;
 
-    @OneToMany(mappedBy = "event", fetch = FetchType.LAZY)
-    private Set<Request> confirmedRequests;
-
     @ManyToMany(mappedBy = "events")
     @ToString.Exclude
     private Set<Compilation> compilations;
@@ -78,6 +85,16 @@ public class Event {
     @Column(name = "number_confirmed")
     private int numberConfirmed;
 
+    /**
+     * Растет при каждом изменении; по нему строятся ETag публичных эндпоинтов.
+     */
+    @Version
+    @Column(name = "version")
+    private long version;
+
     @Transient
     private long views;
+
+    @Transient
+    private boolean viewsStale;
 }
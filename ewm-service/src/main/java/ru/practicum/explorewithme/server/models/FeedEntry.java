@@ -0,0 +1,51 @@
+package ru.practicum.explorewithme.server.models;
+
+import lombok.*;
+import ru.practicum.explorewithme.models.subscription.feed.FeedEntryKind;
+import ru.practicum.explorewithme.server.utils.LocalDateTimeConverter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Запись ленты активности. Записи создаются в момент события (fan-out on write) отдельно для каждого
+ * подписчика-получателя owner, поэтому чтение ленты не требует проверки групп и дружбы.
+ */
+@Entity
+@Table(name = "friend_feed")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class FeedEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "friend_feed_id_seq")
+    @SequenceGenerator(name = "friend_feed_id_seq", sequenceName = "friend_feed_id_seq", allocationSize = 50)
+    private long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner")
+    @ToString.Exclude
+    private User owner;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "actor")
+    @ToString.Exclude
+    private User actor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event")
+    @ToString.Exclude
+    private Event event;
+
+    @Column(name = "request")
+    private Long requestId;
+
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "kind")
+    private FeedEntryKind kind;
+
+    @Convert(converter = LocalDateTimeConverter.class)
+    @Column(name = "created")
+    private LocalDateTime created;
+}
@@ -1,6 +1,7 @@
 package ru.practicum.explorewithme.server.models;
 
 import lombok.*;
+import ru.practicum.explorewithme.models.subscription.group.FriendshipGroup;
 import ru.practicum.explorewithme.server.utils.LocalDateTimeConverter;
 
 import javax.persistence.*;
@@ -13,7 +14,8 @@ import java.time.LocalDateTime;
 @Entity
 public class Follower {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "followers_id_seq")
+    @SequenceGenerator(name = "followers_id_seq", sequenceName = "followers_id_seq", allocationSize = 50)
     private long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -21,26 +23,38 @@ public class Follower {
     @ToString.Exclude
     private Group group;
 
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "kind")
+    private FriendshipGroup kind;
+
     @Convert(converter = LocalDateTimeConverter.class)
     @Column(name = "added")
     private LocalDateTime added = LocalDateTime.now();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "publisher")
+    @ToString.Exclude
     private User publisher;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "follower")
+    @ToString.Exclude
     private User follower;
 
-    @OneToOne//(cascade = {CascadeType.PERSIST, CascadeType.REFRESH, CascadeType.MERGE})
+    @OneToOne(fetch = FetchType.LAZY)//(cascade = {CascadeType.PERSIST, CascadeType.REFRESH, CascadeType.MERGE})
     @JoinColumn(name = "subscription", referencedColumnName = "id")
+    @ToString.Exclude
     private SubscriptionRequest request;
 
     public Follower(Group group, User publisher, User follower, SubscriptionRequest request) {
-        this.group = group;
+        setGroup(group);
         this.publisher = publisher;
         this.follower = follower;
         this.request = request;
     }
+
+    public void setGroup(Group group) {
+        this.group = group;
+        this.kind = group.getKind();
+    }
 }
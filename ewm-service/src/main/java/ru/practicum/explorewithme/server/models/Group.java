@@ -2,6 +2,7 @@ package ru.practicum.explorewithme.server.models;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import ru.practicum.explorewithme.models.subscription.group.FriendshipGroup;
 
 import javax.persistence.*;
 
@@ -11,7 +12,8 @@ import javax.persistence.*;
 @NoArgsConstructor
 public class Group {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "groups_id_seq")
+    @SequenceGenerator(name = "groups_id_seq", sequenceName = "groups_id_seq", allocationSize = 50)
     private long id;
 
     @ManyToOne
@@ -21,8 +23,23 @@ public class Group {
     @Column(name = "title")
     private String title;
 
+    @Enumerated(EnumType.ORDINAL)
+    @Column(name = "kind")
+    private FriendshipGroup kind;
+
     public Group(User user, String title) {
         this.user = user;
         this.title = title;
+        this.kind = FriendshipGroup.CUSTOM;
+    }
+
+    public Group(User user, FriendshipGroup kind) {
+        this.user = user;
+        this.title = kind.name();
+        this.kind = kind;
+    }
+
+    public boolean isFollowerGroup() {
+        return kind == FriendshipGroup.FOLLOWER;
     }
 }
@@ -1,9 +1,9 @@
 package ru.practicum.explorewithme.server.models;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.explorewithme.models.event.Location;
+import ru.practicum.explorewithme.server.utils.geo.GeoHash;
 
 import javax.persistence.*;
 
@@ -11,10 +11,10 @@ import javax.persistence.*;
 @Data
 @Table(name = "locations")
 @NoArgsConstructor
-@AllArgsConstructor
 public class Loc {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "locations_id_seq")
+    @SequenceGenerator(name = "locations_id_seq", sequenceName = "locations_id_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "lat")
@@ -23,8 +23,26 @@ public class Loc {
     @Column(name = "lon")
     private float longitude;
 
+    /**
+     * Вычисляется из координат при записи; по нему поиск событий рядом выбирает места префиксом ячейки.
+     */
+    @Column(name = "geohash")
+    private String geohash;
+
+    public Loc(long id, float latitude, float longitude) {
+        this.id = id;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
     public Loc(Location location) {
         this.latitude = location.getLat();
         this.longitude = location.getLon();
     }
+
+    @PrePersist
+    @PreUpdate
+    void updateGeohash() {
+        geohash = GeoHash.encode(latitude, longitude, GeoHash.PRECISION);
+    }
 }
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 @Data
 public class SubscriptionRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "subscription_id_seq")
+    @SequenceGenerator(name = "subscription_id_seq", sequenceName = "subscription_id_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "friendship_request")
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private long id;
     @Column(name = "name")
     private String name;
@@ -31,9 +32,9 @@ public class User {
         created = LocalDateTime.now();
     }
 
-    @Transient
+    @Column(name = "friends_count")
     private long friends;
 
-    @Transient
+    @Column(name = "followers_count")
     private long followers;
 }
@@ -1,9 +1,28 @@
 package ru.practicum.explorewithme.server.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.explorewithme.server.models.Category;
 
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Запросы, объявленные в интерфейсе, по умолчанию идут вне транзакции и попадают в primary; read-only на
+ * уровне интерфейса отправляет их в реплики, изменяющие запросы помечены отдельно.
+ */
 @Repository
+@Transactional(readOnly = true)
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    @Query("select c.version from Category c where c.id = ?1")
+    Optional<Long> findVersionById(long categoryId);
+
+    /**
+     * Пары id.version категорий страницы в том же порядке, что и findAll(pageable).
+     */
+    @Query("select concat(str(c.id), '.', str(c.version)) from Category c")
+    List<String> findVersions(Pageable pageable);
 }
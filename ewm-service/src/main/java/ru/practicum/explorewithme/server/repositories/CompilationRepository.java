@@ -2,12 +2,59 @@ package ru.practicum.explorewithme.server.repositories;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.explorewithme.server.models.Compilation;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
+@Transactional(readOnly = true)
 public interface CompilationRepository extends JpaRepository<Compilation, Long> {
     List<Compilation> findAllByPinned(boolean pinned, Pageable pageable);
+
+    @Query("select c.id from Compilation c")
+    List<Long> findIds(Pageable pageable);
+
+    @Query("select c.id from Compilation c where c.pinned = ?1")
+    List<Long> findIdsByPinned(boolean pinned, Pageable pageable);
+
+    /**
+     * Версии подборок вместе с суммой версий их событий и категорий. Изменение состава подборки увеличивает
+     * версию самой подборки, изменение события или категории - соответствующую сумму.
+     */
+    @Query("select concat(str(c.id), '.', str(c.version), '.', str(coalesce(sum(e.version), 0)), '.', " +
+            "str(coalesce(sum(cat.version), 0))) from Compilation c left join c.events e left join e.category cat " +
+            "where c.id in ?1 group by c.id, c.version order by c.id")
+    List<String> findVersions(Collection<Long> compilationIds);
+
+    @Query("select e.id from Compilation c join c.events e where c.id = ?1 and e.id in ?2")
+    List<Long> findEventIds(long compilationId, Collection<Long> eventIds);
+
+    /**
+     * Добавляет в подборку события, которых в ней еще нет, одной вставкой в events_compilations.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "insert into events_compilations (compilation_id, event_id) select ?1, e.id from events e " +
+            "where e.id in ?2 and not exists (select 1 from events_compilations ec " +
+            "where ec.compilation_id = ?1 and ec.event_id = e.id)", nativeQuery = true)
+    int addEvents(long compilationId, Collection<Long> eventIds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "delete from events_compilations where compilation_id = ?1 and event_id in ?2", nativeQuery = true)
+    int deleteEvents(long compilationId, Collection<Long> eventIds);
+
+    /**
+     * Состав подборки меняется запросами к events_compilations в обход сущности, поэтому версию для ETag
+     * увеличиваем явно.
+     */
+    @Modifying
+    @Transactional
+    @Query("update Compilation c set c.version = c.version + 1 where c.id = ?1")
+    void incrementVersion(long compilationId);
 }
@@ -3,24 +3,63 @@ package ru.practicum.explorewithme.server.repositories;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.explorewithme.models.event.State;
 import ru.practicum.explorewithme.server.models.Event;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPredicateExecutor<Event> {
+@Transactional(readOnly = true)
+public interface EventRepository extends JpaRepository<Event, Long>, QuerydslPredicateExecutor<Event>,
+        MyEventRepository {
     Optional<Event> findByInitiator_IdAndId(long initiatorId, long eventId);
 
+    @Query("select e from Event e fetch all properties where e.initiator.id = ?1 and e.id = ?2")
+    Optional<Event> findWithDescriptionByInitiatorIdAndId(long initiatorId, long eventId);
+
+    @Query("select e from Event e fetch all properties where e.id = ?1")
+    Optional<Event> findWithDescriptionById(long eventId);
+
     List<Event> findAllByInitiator_Id(long initiatorId, Pageable pageable);
 
     Optional<Event> findByIdAndState(long eventId, State state);
 
-    @Query(value = "update events as e set number_confirmed = number_confirmed + 1 where id = ?1 returning e" +
-            ".number_confirmed", nativeQuery = true)
+    @Modifying
+    @Transactional
+    @Query(value = "update events set number_confirmed = number_confirmed + 1, version = version + 1 where id = ?1",
+            nativeQuery = true)
     void addConfirmedRequest(long eventId);
+
+    /**
+     * Версия события и его категории: от них зависит EventFullDto, кроме просмотров.
+     */
+    @Query("select concat(str(e.version), '.', str(c.version)) from Event e join e.category c " +
+            "where e.id = ?1 and e.state = ?2")
+    Optional<String> findVersionByIdAndState(long eventId, State state);
+
+    @Query("select e.id from Event e where e.id in ?1")
+    List<Long> findExistingIds(Collection<Long> eventIds);
+
+    /**
+     * Опубликованные события после даты after со всем, что нужно EventShortDto, одним запросом.
+     */
+    @Query("select e from Event e join fetch e.initiator join fetch e.category left join fetch e.location " +
+            "where e.state = ?1 and e.eventDate > ?2")
+    List<Event> findAllForIndex(State state, LocalDateTime after);
+
+    @Query("select e from Event e join fetch e.initiator join fetch e.category left join fetch e.location " +
+            "where e.id = ?1")
+    Optional<Event> findForIndexById(long eventId);
+
+    @Query("select e from Event e join fetch e.initiator join fetch e.category left join fetch e.location " +
+            "where e.id in ?1")
+    List<Event> findAllForSearchById(Collection<Long> eventIds);
 }
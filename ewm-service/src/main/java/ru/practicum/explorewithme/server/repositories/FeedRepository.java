@@ -0,0 +1,83 @@
+package ru.practicum.explorewithme.server.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.explorewithme.server.models.FeedEntry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FeedRepository extends JpaRepository<FeedEntry, Long> {
+    /**
+     * Порядковые номера FriendshipGroup и FeedEntryKind как параметры native-запросов.
+     */
+    String FOLLOWER = "?#{T(ru.practicum.explorewithme.models.subscription.group.FriendshipGroup).FOLLOWER.ordinal()}";
+
+    String FRIENDS_ALL =
+            "?#{T(ru.practicum.explorewithme.models.subscription.group.FriendshipGroup).FRIENDS_ALL.ordinal()}";
+
+    String PARTICIPATION =
+            "?#{T(ru.practicum.explorewithme.models.subscription.feed.FeedEntryKind).PARTICIPATION.ordinal()}";
+
+    String PUBLICATION =
+            "?#{T(ru.practicum.explorewithme.models.subscription.feed.FeedEntryKind).PUBLICATION.ordinal()}";
+
+    /**
+     * Запись об участии ff видна своему владельцу, пока он друг автора заявки и заявка помечена группой
+     * FRIENDS_ALL или группой, в которой он состоит. Повторяет правило getEventsWhereParticipant.
+     */
+    String PARTICIPATION_VISIBLE = "exists (select 1 from followers f " +
+            "join request_group rg on rg.request = ff.request join groups g on g.id = rg.group_level " +
+            "where f.publisher = ff.actor and f.follower = ff.owner and f.kind <> " + FOLLOWER + " " +
+            "and (g.kind = " + FRIENDS_ALL + " or g.id = f.group_level))";
+
+    @Query("from FeedEntry e join fetch e.actor join fetch e.event ev join fetch ev.initiator " +
+            "join fetch ev.category left join fetch ev.location where e.owner.id = ?1 and e.id < ?2 order by e.id desc")
+    List<FeedEntry> findFeed(long ownerId, long beforeId, Pageable pageable);
+
+    @Modifying
+    @Query(value = "insert into friend_feed (owner, actor, event, request, kind, created) " +
+            "select f.follower, r.requestor, r.event, r.id, " + PARTICIPATION + ", ?2 from participation_requests r " +
+            "join followers f on f.publisher = r.requestor where r.id = ?1 and f.kind <> " + FOLLOWER + " " +
+            "and not exists (select 1 from friend_feed ff where ff.owner = f.follower and ff.request = r.id)",
+            nativeQuery = true)
+    int fanOutParticipationToFriends(long requestId, LocalDateTime created);
+
+    @Modifying
+    @Query(value = "insert into friend_feed (owner, actor, event, request, kind, created) " +
+            "select f.follower, r.requestor, r.event, r.id, " + PARTICIPATION + ", ?3 from participation_requests r " +
+            "join followers f on f.publisher = r.requestor where r.id = ?1 and f.group_level = ?2 " +
+            "and f.kind <> " + FOLLOWER + " " +
+            "and not exists (select 1 from friend_feed ff where ff.owner = f.follower and ff.request = r.id)",
+            nativeQuery = true)
+    int fanOutParticipationToGroup(long requestId, long groupId, LocalDateTime created);
+
+    @Modifying
+    @Query(value = "insert into friend_feed (owner, actor, event, kind, created) " +
+            "select f.follower, e.initiator, e.id, " + PUBLICATION + ", ?2 from events e " +
+            "join followers f on f.publisher = e.initiator where e.id = ?1",
+            nativeQuery = true)
+    int fanOutPublication(long eventId, LocalDateTime created);
+
+    @Modifying
+    @Query(value = "delete from friend_feed ff where ff.request = ?1 and not " + PARTICIPATION_VISIBLE,
+            nativeQuery = true)
+    int deleteHiddenParticipation(long requestId);
+
+    @Modifying
+    @Query(value = "delete from friend_feed ff where ff.actor = ?1 and ff.owner = ?2 and ff.kind = " + PARTICIPATION +
+            " and not " + PARTICIPATION_VISIBLE, nativeQuery = true)
+    int deleteHiddenParticipation(long actorId, long ownerId);
+
+    @Modifying
+    @Query("delete from FeedEntry e where e.actor.id = ?1 and e.owner.id = ?2")
+    int deleteByActorAndOwner(long actorId, long ownerId);
+
+    @Modifying
+    @Query("delete from FeedEntry e where e.requestId = ?1")
+    int deleteByRequest(long requestId);
+}
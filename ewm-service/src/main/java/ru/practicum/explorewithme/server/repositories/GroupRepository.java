@@ -2,6 +2,7 @@ package ru.practicum.explorewithme.server.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import ru.practicum.explorewithme.models.subscription.group.FriendshipGroup;
 import ru.practicum.explorewithme.server.models.Group;
 
 import java.util.List;
@@ -11,6 +12,8 @@ import java.util.Optional;
 public interface GroupRepository extends JpaRepository<Group, Long> {
     Optional<Group> findByUser_IdAndTitleIgnoreCase(long userId, String title);
 
+    Optional<Group> findByUser_IdAndKind(long userId, FriendshipGroup kind);
+
     Optional<Group> findByIdAndUser_Id(long groupId, long userId);
 
     List<Group> findAllByUser_Id(long userId);
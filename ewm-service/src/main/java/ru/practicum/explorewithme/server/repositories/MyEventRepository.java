@@ -0,0 +1,24 @@
+package ru.practicum.explorewithme.server.repositories;
+
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import ru.practicum.explorewithme.server.models.Event;
+
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public interface MyEventRepository {
+    List<Event> findEventsWhereParticipant(long userId, long viewerId, Predicate condition, Pageable pageable);
+
+    /**
+     * Аналог findAll(Predicate, Pageable), но с описанием событий: для списков EventFullDto.
+     */
+    List<Event> findAllWithDescription(Predicate condition, Pageable pageable);
+
+    /**
+     * Число событий по условию на каждую пару id категории - paid, одним group by запросом.
+     */
+    Map<Long, Map<Boolean, Long>> countByCategoryAndPaid(Predicate condition);
+}
@@ -0,0 +1,90 @@
+package ru.practicum.explorewithme.server.repositories;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.PathBuilderFactory;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import ru.practicum.explorewithme.models.request.RequestStatus;
+import ru.practicum.explorewithme.models.subscription.group.FriendshipGroup;
+import ru.practicum.explorewithme.server.models.Event;
+import ru.practicum.explorewithme.server.models.QEvent;
+import ru.practicum.explorewithme.server.models.QFollower;
+import ru.practicum.explorewithme.server.models.QGroup;
+import ru.practicum.explorewithme.server.models.QRequest;
+
+import javax.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MyEventRepositoryImpl implements MyEventRepository {
+    private final EntityManager em;
+
+    private final Querydsl querydsl;
+
+    @Autowired
+    public MyEventRepositoryImpl(EntityManager em) {
+        this.em = em;
+        this.querydsl = new Querydsl(em, new PathBuilderFactory().create(Event.class));
+    }
+
+    /**
+     * События, в которых userId подтвержденно участвует и которые он показал группе viewerId: заявка помечена
+     * группой FRIENDS_ALL или группой, в которой состоит viewerId. Пустой список, если viewerId не друг userId.
+     */
+    @Override
+    public List<Event> findEventsWhereParticipant(long userId, long viewerId, Predicate condition, Pageable pageable) {
+        QEvent event = QEvent.event;
+        QFollower follower = QFollower.follower1;
+        QRequest request = QRequest.request;
+        QGroup group = QGroup.group;
+        JPAQueryFactory queryFactory = new JPAQueryFactory(em);
+
+        //события выбираются по заявкам пользователя, а не перебором всех событий с проверкой exists
+        return queryFactory.selectFrom(event).fetchAll()
+                .join(event.initiator).fetchJoin()
+                .join(event.category).fetchJoin()
+                .leftJoin(event.location).fetchJoin()
+                .where(event.id.in(JPAExpressions.select(request.event.id).from(request)
+                                .join(request.groups, group)
+                                .from(follower)
+                                .where(follower.publisher.id.eq(userId), follower.follower.id.eq(viewerId),
+                                        follower.kind.ne(FriendshipGroup.FOLLOWER),
+                                        request.requestor.id.eq(userId), request.status.eq(RequestStatus.CONFIRMED),
+                                        group.kind.eq(FriendshipGroup.FRIENDS_ALL).or(group.eq(follower.group)))),
+                        condition)
+                .orderBy(event.id.asc())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+    }
+
+    @Override
+    public List<Event> findAllWithDescription(Predicate condition, Pageable pageable) {
+        QEvent event = QEvent.event;
+        JPQLQuery<Event> query = new JPAQueryFactory(em).selectFrom(event).fetchAll()
+                .join(event.initiator).fetchJoin()
+                .join(event.category).fetchJoin()
+                .leftJoin(event.location).fetchJoin()
+                .where(condition);
+
+        return querydsl.applyPagination(pageable, query).fetch();
+    }
+
+    @Override
+    public Map<Long, Map<Boolean, Long>> countByCategoryAndPaid(Predicate condition) {
+        QEvent event = QEvent.event;
+        Map<Long, Map<Boolean, Long>> counts = new HashMap<>();
+        new JPAQueryFactory(em).select(event.category.id, event.paid, event.count()).from(event)
+                .where(condition)
+                .groupBy(event.category.id, event.paid)
+                .fetch()
+                .forEach(tuple -> counts.computeIfAbsent(tuple.get(event.category.id), id -> new HashMap<>())
+                        .put(tuple.get(event.paid), tuple.get(event.count())));
+        return counts;
+    }
+}
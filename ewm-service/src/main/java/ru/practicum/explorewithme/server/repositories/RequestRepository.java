@@ -1,8 +1,8 @@
 package ru.practicum.explorewithme.server.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import ru.practicum.explorewithme.server.models.Group;
 import ru.practicum.explorewithme.server.models.Request;
 
 import java.util.List;
@@ -15,10 +15,7 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
 
     List<Request> findAllByEvent_Id(long eventId);
 
-    @Query("select r.event.id from Request r " +
-            "where r.requestor.id = ?1 and r.status = 1 and (?2 member of r.groups or ?3 member of r.groups) ")
-    List<Long> findEventIdsWhereRequestStatusConfirmedAndGroup(long requestorId, Group group, Group groupAll);
-
+    @Modifying
     @Query("update Request r set r.status=2 where r.event.id=?1 and r.status=0")
     void rejectedAllRequestsByEventId(long eventId);
 
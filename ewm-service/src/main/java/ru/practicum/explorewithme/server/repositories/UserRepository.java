@@ -2,6 +2,8 @@ package ru.practicum.explorewithme.server.repositories;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.explorewithme.models.user.UserDto;
 import ru.practicum.explorewithme.server.models.User;
@@ -10,6 +12,25 @@ import java.util.List;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    /**
+     * Порядковый номер FriendshipGroup.FOLLOWER как параметр native-запроса.
+     */
+    String FOLLOWER = "?#{T(ru.practicum.explorewithme.models.subscription.group.FriendshipGroup).FOLLOWER.ordinal()}";
+
+    String COUNT_FOLLOWERS = "select count(*) from followers f where f.publisher = u.id and f.kind = " + FOLLOWER;
+
+    String COUNT_FRIENDS = "select count(*) from followers f where f.publisher = u.id and f.kind <> " + FOLLOWER;
+
     List<UserDto> findAllByIdIsIn(long[] ids, Pageable pageable);
 
+    @Modifying
+    @Query("update User u set u.followers = u.followers + ?2, u.friends = u.friends + ?3 where u.id = ?1")
+    void changeSubscriptionCounters(long userId, long followersDelta, long friendsDelta);
+
+    @Modifying
+    @Query(value = "update users u set " +
+            "followers_count = (" + COUNT_FOLLOWERS + "), friends_count = (" + COUNT_FRIENDS + ") " +
+            "where u.followers_count <> (" + COUNT_FOLLOWERS + ") or u.friends_count <> (" + COUNT_FRIENDS + ")",
+            nativeQuery = true)
+    int reconcileSubscriptionCounters();
 }
@@ -2,17 +2,28 @@ package ru.practicum.explorewithme.server.services;
 
 import ru.practicum.explorewithme.models.category.CategoryDto;
 import ru.practicum.explorewithme.models.compilation.CompilationDto;
+import ru.practicum.explorewithme.models.event.EventFacet;
 import ru.practicum.explorewithme.models.event.EventFullDto;
+import ru.practicum.explorewithme.models.event.EventSearchDto;
 import ru.practicum.explorewithme.models.event.EventShortDto;
+import ru.practicum.explorewithme.models.event.EventSort;
+import ru.practicum.explorewithme.models.event.SuggestionsDto;
 import ru.practicum.explorewithme.server.utils.selectioncondition.SelectionConditionForPublic;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public interface PublicService {
 
     List<EventShortDto> getEvents(SelectionConditionForPublic condition, HttpServletRequest request);
 
+    EventSearchDto getEventsWithFacets(SelectionConditionForPublic condition, Set<EventFacet> facets,
+                                       HttpServletRequest request);
+
+    SuggestionsDto getSuggestions(String text, EventSort sort, int size);
+
     EventFullDto getEventById(long eventId, HttpServletRequest request);
 
     List<CompilationDto> getCompilations(Boolean pinned, int from, int size);
@@ -22,4 +33,23 @@ public interface PublicService {
     List<CategoryDto> getCategories(int from, int size);
 
     CategoryDto getCategoryById(long categoryId);
+
+    /**
+     * Слабый ETag опубликованного события: просмотры в него не входят. Пустой, если события нет или оно не
+     * опубликовано, - тогда ошибку вернет getEventById.
+     */
+    Optional<String> getEventETag(long eventId);
+
+    String getCompilationsETag(Boolean pinned, int from, int size);
+
+    Optional<String> getCompilationETag(long compilationId);
+
+    String getCategoriesETag(int from, int size);
+
+    Optional<String> getCategoryETag(long categoryId);
+
+    /**
+     * Учитывает просмотр события, на который ответили 304 без загрузки события.
+     */
+    void registerEventView(HttpServletRequest request);
 }
@@ -3,64 +3,111 @@ package ru.practicum.explorewithme.server.services;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.explorewithme.models.category.CategoryDto;
 import ru.practicum.explorewithme.models.compilation.CompilationDto;
+import ru.practicum.explorewithme.models.event.EventFacet;
 import ru.practicum.explorewithme.models.event.EventFullDto;
+import ru.practicum.explorewithme.models.event.EventSearchDto;
 import ru.practicum.explorewithme.models.event.EventShortDto;
 import ru.practicum.explorewithme.models.event.EventSort;
 import ru.practicum.explorewithme.models.event.State;
+import ru.practicum.explorewithme.models.event.SuggestionsDto;
 import ru.practicum.explorewithme.server.exceptions.notfound.CategoryNotFoundException;
 import ru.practicum.explorewithme.server.exceptions.notfound.CompilationNotFoundException;
 import ru.practicum.explorewithme.server.exceptions.notfound.EventNotFoundException;
 import ru.practicum.explorewithme.server.exceptions.requestcondition.RequestConditionException;
-import ru.practicum.explorewithme.server.models.Compilation;
 import ru.practicum.explorewithme.server.models.Event;
 import ru.practicum.explorewithme.server.models.QEvent;
 import ru.practicum.explorewithme.server.repositories.CategoryRepository;
 import ru.practicum.explorewithme.server.repositories.CompilationRepository;
 import ru.practicum.explorewithme.server.repositories.EventRepository;
+import ru.practicum.explorewithme.server.utils.cache.CompilationCache;
+import ru.practicum.explorewithme.server.utils.cache.EventSearchCache;
 import ru.practicum.explorewithme.server.utils.mappers.MyMapper;
+import ru.practicum.explorewithme.server.utils.routing.ReplicaRoutingDataSource;
+import ru.practicum.explorewithme.server.utils.search.EventSuggestIndex;
+import ru.practicum.explorewithme.server.utils.search.UpcomingEventIndex;
 import ru.practicum.explorewithme.server.utils.selectioncondition.SearchParam;
 import ru.practicum.explorewithme.server.utils.selectioncondition.SelectionConditionForPublic;
 
 import javax.servlet.http.HttpServletRequest;
-import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import static ru.practicum.explorewithme.server.utils.ServerUtil.makeETag;
 import static ru.practicum.explorewithme.server.utils.ServerUtil.makePageable;
 
+/**
+ * Методы не транзакционные: каждый запрос к базе идет в своей короткой транзакции, и соединение возвращается
+ * в пул до обращения к stats-server.
+ */
 @Service
 @Slf4j
-@Transactional
 @RequiredArgsConstructor
 public class PublicServiceImpl implements PublicService {
     private final EventRepository eventRepository;
     private final CompilationRepository compilationRepository;
     private final CategoryRepository categoryRepository;
     private final StatsHandler statsHandler;
+    private final CompilationCache compilationCache;
+    private final UpcomingEventIndex upcomingEventIndex;
+    private final EventSearchCache eventSearchCache;
+    private final EventSuggestIndex eventSuggestIndex;
+    private final TransactionTemplate transactionTemplate;
 
     private final MyMapper mapper;
 
     @Override
     public List<EventShortDto> getEvents(SelectionConditionForPublic condition, HttpServletRequest request) {
         log.info("Запрошены Events с параметрами поиска {}", condition);
-        QEvent qEvent = QEvent.event;
-        SearchParam param = condition.getSearchParameters(qEvent);
+        List<Event> list = upcomingEventIndex.search(condition).orElseGet(() -> searchInDatabase(condition));
 
-        List<Event> list = eventRepository.findAll(param.getBooleanExpression(), param.getPageable()).toList();
+        List<EventShortDto> events = list.stream().peek(event -> statsHandler.statsHandle(event, request.getRemoteAddr()))
+                .map(mapper::toEventShort).collect(Collectors.toList());
 
         if (condition.getSort() != null && condition.getSort() == EventSort.VIEWS) {
-            list = list.stream().sorted().collect(Collectors.toList());
+            events = events.stream().sorted().collect(Collectors.toList());
         }
 
-        return list.stream().peek(event -> statsHandler.statsHandle(event, request.getRemoteAddr()))
-                .map(mapper::toEventShort).collect(Collectors.toList());
+        return events;
+    }
+
+    @Override
+    public EventSearchDto getEventsWithFacets(SelectionConditionForPublic condition, Set<EventFacet> facets,
+                                              HttpServletRequest request) {
+        List<EventShortDto> events = getEvents(condition, request);
+        Map<EventFacet, Map<String, Long>> found = new EnumMap<>(EventFacet.class);
+        for (EventFacet facet : facets) {
+            upcomingEventIndex.countFacet(condition, facet).ifPresent(counts -> found.put(facet, counts));
+        }
+        //индекс отвечает либо на все facets условия, либо ни на один
+        Map<EventFacet, Map<String, Long>> byFacet = found.size() == facets.size()
+                ? found : countFacetsInDatabase(condition, facets);
+        Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+        byFacet.forEach((facet, values) -> counts.put(facet.name().toLowerCase(), values));
+        return new EventSearchDto(events, counts);
+    }
+
+    @Override
+    public SuggestionsDto getSuggestions(String text, EventSort sort, int size) {
+        log.debug("Запрошены подсказки для '{}'", text);
+        return eventSuggestIndex.suggest(text, sort, size);
     }
 
     @Override
     public EventFullDto getEventById(long eventId, HttpServletRequest request) {
-        Event event = eventRepository.findById(eventId).orElseThrow(() -> new EventNotFoundException(eventId));
+        Event event = eventRepository.findWithDescriptionById(eventId)
+                .orElseThrow(() -> new EventNotFoundException(eventId));
 
         if (event.getState() != State.PUBLISHED) {
             throw new RequestConditionException("Event не опубликован");
@@ -73,29 +120,22 @@ public class PublicServiceImpl implements PublicService {
         return mapper.toEventFull(event);
     }
 
+    /**
+     * Подборки берутся из CompilationCache: при попадании в кэш запрос не обращается к базе.
+     */
     @Override
     public List<CompilationDto> getCompilations(Boolean pinned, int from, int size) {
-        List<Compilation> compilations;
-        if (pinned == null) {
-            compilations = compilationRepository.findAll(makePageable(from, size)).getContent();
-            log.info("Запрошены Compilations с оплатой - null");
-
-        } else {
-            compilations = compilationRepository.findAllByPinned(pinned, makePageable(from, size));
-            log.info("Запрошены Compilations с оплатой - {}", pinned);
-        }
-
-        return compilations.stream().map(mapper::toCompilationDto).collect(Collectors.toList());
+        log.info("Запрошены Compilations с оплатой - {}", pinned);
+        return compilationCache.getAll(getCompilationIds(pinned, from, size), this::loadCompilations).stream()
+                .map(CompilationCache.Entry::getDto).collect(Collectors.toList());
     }
 
     @Override
     public CompilationDto getCompilationById(Long compilationId) {
         log.info("Запрошена Compilation с id = {}", compilationId);
-        Compilation compilation = compilationRepository.findById(compilationId)
+        return compilationCache.getAll(List.of(compilationId), this::loadCompilations).stream().findFirst()
+                .map(CompilationCache.Entry::getDto)
                 .orElseThrow(() -> new CompilationNotFoundException(compilationId));
-
-        log.info("Запрошенный {}", compilation);
-        return mapper.toCompilationDto(compilation);
     }
 
     @Override
@@ -111,4 +151,128 @@ public class PublicServiceImpl implements PublicService {
         return categoryRepository.findById(categoryId).map(mapper::toCategoryDto)
                 .orElseThrow(() -> new CategoryNotFoundException(categoryId));
     }
+
+    @Override
+    public Optional<String> getEventETag(long eventId) {
+        return eventRepository.findVersionByIdAndState(eventId, State.PUBLISHED)
+                .map(version -> "W/" + makeETag(List.of(version)));
+    }
+
+    @Override
+    public String getCompilationsETag(Boolean pinned, int from, int size) {
+        return makeETag(compilationCache.getAll(getCompilationIds(pinned, from, size), this::loadCompilations).stream()
+                .map(CompilationCache.Entry::getVersion).collect(Collectors.toList()));
+    }
+
+    @Override
+    public Optional<String> getCompilationETag(long compilationId) {
+        return compilationCache.getAll(List.of(compilationId), this::loadCompilations).stream().findFirst()
+                .map(entry -> makeETag(List.of(entry.getVersion())));
+    }
+
+    @Override
+    public String getCategoriesETag(int from, int size) {
+        return makeETag(categoryRepository.findVersions(makePageable(from, size)));
+    }
+
+    @Override
+    public Optional<String> getCategoryETag(long categoryId) {
+        return categoryRepository.findVersionById(categoryId).map(version -> makeETag(List.of(version.toString())));
+    }
+
+    @Override
+    public void registerEventView(HttpServletRequest request) {
+        statsHandler.saveStats(request.getRequestURI(), request.getRemoteAddr());
+    }
+
+    private List<Long> getCompilationIds(Boolean pinned, int from, int size) {
+        return compilationCache.getPage(pinned, from, size, () -> fromPrimary(status -> pinned == null
+                ? compilationRepository.findIds(makePageable(from, size))
+                : compilationRepository.findIdsByPinned(pinned, makePageable(from, size))));
+    }
+
+    /**
+     * Подборки и их версии одной транзакцией; строка версии начинается с id подборки.
+     */
+    private List<CompilationCache.Entry> loadCompilations(List<Long> compilationIds) {
+        return fromPrimary(status -> {
+            Map<Long, String> versions = compilationRepository.findVersions(compilationIds).stream()
+                    .collect(Collectors.toMap(version -> Long.parseLong(version.substring(0, version.indexOf('.'))),
+                            version -> version));
+            return compilationRepository.findAllById(compilationIds).stream()
+                    .map(compilation -> new CompilationCache.Entry(mapper.toCompilationDto(compilation),
+                            versions.get(compilation.getId())))
+                    .collect(Collectors.toList());
+        });
+    }
+
+    private List<Event> searchInDatabase(SelectionConditionForPublic condition) {
+        return eventSearchCache.get(condition, () -> {
+            SearchParam param = condition.getSearchParameters(QEvent.event);
+            return fromPrimary(status -> eventRepository.findAll(param.getBooleanExpression(),
+                    param.getPageable()).toList());
+        }, this::loadEvents);
+    }
+
+    /**
+     * Все facets одним group by по категории и paid без фильтров по этим полям: фильтр по одному полю
+     * применяется к счетчикам другого. Формат как у UpcomingEventIndex.countFacet.
+     */
+    private Map<EventFacet, Map<String, Long>> countFacetsInDatabase(SelectionConditionForPublic condition,
+                                                                     Set<EventFacet> facets) {
+        Map<Long, Map<Boolean, Long>> byCategoryAndPaid = readOnly(status -> eventRepository.countByCategoryAndPaid(
+                condition.getFacetExpression(QEvent.event, EnumSet.allOf(EventFacet.class))));
+        Map<EventFacet, Map<String, Long>> counts = new EnumMap<>(EventFacet.class);
+        if (facets.contains(EventFacet.CATEGORY)) {
+            Map<String, Long> byCategory = new LinkedHashMap<>();
+            byCategoryAndPaid.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(category -> {
+                long count = category.getValue().entrySet().stream()
+                        .filter(paid -> condition.getPaid() == null || paid.getKey().equals(condition.getPaid()))
+                        .mapToLong(Map.Entry::getValue).sum();
+                if (count > 0) {
+                    byCategory.put(category.getKey().toString(), count);
+                }
+            });
+            counts.put(EventFacet.CATEGORY, byCategory);
+        }
+        if (facets.contains(EventFacet.PAID)) {
+            int[] categories = condition.getCategories();
+            Set<Long> selected = categories == null || categories.length == 0 ? byCategoryAndPaid.keySet()
+                    : Arrays.stream(categories).mapToObj(id -> (long) id).collect(Collectors.toSet());
+            Map<String, Long> byPaid = new LinkedHashMap<>();
+            for (boolean paid : new boolean[]{true, false}) {
+                byPaid.put(String.valueOf(paid), selected.stream()
+                        .map(category -> byCategoryAndPaid.getOrDefault(category, Map.of()))
+                        .mapToLong(category -> category.getOrDefault(paid, 0L)).sum());
+            }
+            counts.put(EventFacet.PAID, byPaid);
+        }
+        return counts;
+    }
+
+    /**
+     * События по id: предстоящие - из индекса, остальные одним запросом.
+     */
+    private List<Event> loadEvents(List<Long> eventIds) {
+        Map<Long, Event> found = upcomingEventIndex.find(eventIds);
+        List<Long> missing = eventIds.stream().filter(id -> !found.containsKey(id)).collect(Collectors.toList());
+        List<Event> events = new ArrayList<>(found.values());
+        if (!missing.isEmpty()) {
+            events.addAll(readOnly(status -> eventRepository.findAllForSearchById(missing)));
+        }
+        return events;
+    }
+
+    private <T> T readOnly(TransactionCallback<T> action) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);  //при настроенных репликах чтение уходит в реплику
+        return readOnly.execute(action);
+    }
+
+    /**
+     * Для загрузчиков кэшей: прочитанное из отстающей реплики пережило бы сброс кэша после коммита.
+     */
+    private <T> T fromPrimary(TransactionCallback<T> action) {
+        return ReplicaRoutingDataSource.onPrimary(() -> readOnly(action));
+    }
 }
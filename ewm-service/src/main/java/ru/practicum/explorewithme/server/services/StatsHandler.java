@@ -1,25 +1,80 @@
 package ru.practicum.explorewithme.server.services;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClientException;
 import ru.practicum.explorewithme.clients.stat.StatClient;
 import ru.practicum.explorewithme.models.statistics.EndpointHit;
 import ru.practicum.explorewithme.models.statistics.ViewStats;
 import ru.practicum.explorewithme.server.models.Event;
 
-import javax.transaction.Transactional;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+/**
+ * Обогащает события просмотрами из stats-server. Вызовы идут через circuit breaker и bulkhead "stats":
+ * при недоступности сервера статистики событие получает последнее известное число просмотров с флагом viewsStale.
+ * Просмотры записывает gateway; ewm-service пишет их сам только при stats.record-hits=true.
+ * Вызывается вне транзакций, чтобы не держать соединение с базой на время запросов к stats-server.
+ */
 @Service
-@RequiredArgsConstructor
-@Transactional
+@Slf4j
 public class StatsHandler {
+    private static final String STATS = "stats";
+
+    private static final int URIS_PER_REQUEST = 100;
+
     private final StatClient statClient;
 
+    private final CircuitBreaker circuitBreaker;
+
+    private final Bulkhead bulkhead;
+
+    private final boolean recordHits;
+
+    /**
+     * Последнее полученное число просмотров по id события. Ограничен по размеру и времени: запасное значение
+     * нужно на время сбоя stats-server, а не для всех когда-либо открытых событий.
+     */
+    private final Cache<Long, Long> lastKnownViews;
+
+    public StatsHandler(StatClient statClient, CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads,
+                        MeterRegistry meterRegistry, @Value("${stats.record-hits}") boolean recordHits,
+                        @Value("${cache.last-known-views.max-size}") long lastKnownViewsMaxSize,
+                        @Value("${cache.last-known-views.expire-after-write}") Duration lastKnownViewsExpiry) {
+        this.statClient = statClient;
+        this.circuitBreaker = circuitBreakers.circuitBreaker(STATS);
+        this.bulkhead = bulkheads.bulkhead(STATS);
+        this.recordHits = recordHits;
+        this.lastKnownViews = Caffeine.newBuilder()
+                .maximumSize(lastKnownViewsMaxSize)
+                .expireAfterWrite(lastKnownViewsExpiry)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, lastKnownViews, "last-known-views");
+    }
+
     public Event statsHandle(Event event, String ip) {
         String uri = "/events/" + event.getId();
         saveStats(uri, ip);
@@ -37,26 +92,88 @@ public class StatsHandler {
     }
 
     private Event getStats(Event event, String[] uris) {
-        ResponseEntity<List<ViewStats>> response = statClient.getStats(event.getCreated(),
-                LocalDateTime.now().plusMinutes(1L), uris, false);
+        Optional<List<ViewStats>> stats = callStats(() -> {
+            ResponseEntity<List<ViewStats>> response = statClient.getStats(event.getCreated(),
+                    LocalDateTime.now().plusMinutes(1L), uris, false);
+            checkResponse(response);
+            return response.getBody() == null ? List.of() : response.getBody();
+        });
 
-        if (response.getStatusCode() != HttpStatus.OK) {
-            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Сервер сейчас не доступен");
+        if (stats.isEmpty()) {
+            event.setViews(lastKnownView(event.getId()));
+            event.setViewsStale(true);
+            return event;
         }
 
-        if (response.getBody().size() > 0) {
-            ViewStats stats = response.getBody().get(0);
-            event.setViews(stats.getHits());
+        if (stats.get().size() > 0) {
+            event.setViews(stats.get().get(0).getHits());
         }
+        lastKnownViews.put(event.getId(), event.getViews());
 
         return event;
     }
 
-    private void saveStats(String requestURI, String remoteAddr) {
+    /**
+     * Просмотры событий по id, по URIS_PER_REQUEST событий на запрос. Для пачки, на которую сервер статистики
+     * не ответил, - последние известные.
+     */
+    public Map<Long, Long> getViews(List<Event> events) {
+        Map<Long, Long> views = new HashMap<>();
+        for (int i = 0; i < events.size(); i += URIS_PER_REQUEST) {
+            List<Event> batch = events.subList(i, Math.min(events.size(), i + URIS_PER_REQUEST));
+            Map<String, Long> idsByUri = batch.stream()
+                    .collect(Collectors.toMap(event -> "/events/" + event.getId(), Event::getId));
+            LocalDateTime start = batch.stream().map(Event::getCreated).min(Comparator.naturalOrder()).get();
+            Optional<List<ViewStats>> stats = callStats(() -> {
+                ResponseEntity<List<ViewStats>> response = statClient.getStats(start,
+                        LocalDateTime.now().plusMinutes(1L), idsByUri.keySet().toArray(String[]::new), false);
+                checkResponse(response);
+                return response.getBody() == null ? List.of() : response.getBody();
+            });
+            if (stats.isEmpty()) {
+                batch.forEach(event -> views.put(event.getId(), lastKnownView(event.getId())));
+                continue;
+            }
+            batch.forEach(event -> views.put(event.getId(), 0L));
+            stats.get().stream().filter(viewStats -> idsByUri.containsKey(viewStats.getUri()))
+                    .forEach(viewStats -> views.put(idsByUri.get(viewStats.getUri()), viewStats.getHits()));
+            batch.forEach(event -> lastKnownViews.put(event.getId(), views.get(event.getId())));
+        }
+        return views;
+    }
+
+    public void saveStats(String requestURI, String remoteAddr) {
+        if (!recordHits) {
+            return;
+        }
         EndpointHit endpointHit = new EndpointHit("server", requestURI, remoteAddr, LocalDateTime.now());
 
-        ResponseEntity<EndpointHit> response = statClient.addHit(endpointHit);
+        callStats(() -> {
+            ResponseEntity<EndpointHit> response = statClient.addHit(endpointHit);
+            checkResponse(response);
+            return response;
+        });
+    }
+
+    private long lastKnownView(long eventId) {
+        Long views = lastKnownViews.getIfPresent(eventId);
+        return views == null ? 0L : views;
+    }
+
+    private <T> Optional<T> callStats(Supplier<T> call) {
+        try {
+            return Optional.of(CircuitBreaker.decorateSupplier(circuitBreaker,
+                    Bulkhead.decorateSupplier(bulkhead, call)).get());
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            log.debug("Запрос к серверу статистики пропущен: {}", e.getMessage());
+            return Optional.empty();
+        } catch (RestClientException e) {
+            log.warn("Сервер статистики не ответил: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
 
+    private static void checkResponse(ResponseEntity<?> response) {
         if (response.getStatusCode() != HttpStatus.OK) {
             throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "Сервер сейчас не доступен");
         }
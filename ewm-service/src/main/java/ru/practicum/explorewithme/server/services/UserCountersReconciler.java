@@ -0,0 +1,26 @@
+package ru.practicum.explorewithme.server.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.explorewithme.server.repositories.UserRepository;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserCountersReconciler {
+    private final UserRepository userRepository;
+
+    @Scheduled(cron = "${user-counters.reconcile-cron:0 0 4 * * *}")
+    @Transactional
+    public void reconcile() {
+        int repaired = userRepository.reconcileSubscriptionCounters();
+        if (repaired > 0) {
+            log.warn("Счетчики подписчиков и друзей исправлены у {} пользователей", repaired);
+        } else {
+            log.info("Счетчики подписчиков и друзей согласованы");
+        }
+    }
+}
@@ -12,6 +12,10 @@ public interface CompilationService {
 
     void addEventToCompilation(long compId, long eventId);
 
+    void addEventsToCompilation(long compId, long[] eventIds);
+
+    void deleteEventsFromCompilation(long compId, long[] eventIds);
+
     void unpinCompilation(long compId);
 
     void pinCompilation(long compId);
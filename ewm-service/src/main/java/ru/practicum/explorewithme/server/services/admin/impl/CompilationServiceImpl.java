@@ -2,6 +2,7 @@ package ru.practicum.explorewithme.server.services.admin.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import ru.practicum.explorewithme.models.compilation.CompilationDto;
 import ru.practicum.explorewithme.models.compilation.NewCompilationDto;
@@ -13,11 +14,11 @@ import ru.practicum.explorewithme.server.models.Event;
 import ru.practicum.explorewithme.server.repositories.CompilationRepository;
 import ru.practicum.explorewithme.server.repositories.EventRepository;
 import ru.practicum.explorewithme.server.services.admin.CompilationService;
+import ru.practicum.explorewithme.server.utils.cache.EntityChangedEvent;
 import ru.practicum.explorewithme.server.utils.mappers.MyMapper;
 
 import javax.transaction.Transactional;
-import java.util.Arrays;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import static ru.practicum.explorewithme.server.utils.mappers.CompilationsMapper.toCompilation;
@@ -30,14 +31,20 @@ public class CompilationServiceImpl implements CompilationService {
 
     private final CompilationRepository compilationRepository;
     private final EventRepository eventRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private final MyMapper mapper;
 
-
     @Override
     public CompilationDto addCompilation(NewCompilationDto compilationDto) {
-        List<Event> events = Arrays.stream(compilationDto.getEvents()).mapToObj(id -> eventRepository.findById(id)
-                .orElseThrow(() -> new EventNotFoundException(id))).collect(Collectors.toList());
+        Set<Event> events = new LinkedHashSet<>(compilationDto.getEvents() == null ? List.of() :
+                eventRepository.findAllById(toIds(compilationDto.getEvents())));
+        if (compilationDto.getEvents() != null) {
+            Set<Long> found = events.stream().map(Event::getId).collect(Collectors.toSet());
+            Arrays.stream(compilationDto.getEvents()).filter(id -> !found.contains(id)).findFirst().ifPresent(id -> {
+                throw new EventNotFoundException(id);
+            });
+        }
 
         Compilation compilation = compilationRepository.save(toCompilation(compilationDto, events));
         log.info("Compilation {} c id={} добавлена", compilation.getTitle(), compilation.getId());
@@ -54,37 +61,64 @@ public class CompilationServiceImpl implements CompilationService {
 
     @Override
     public void deleteEventFromCompilation(long compId, long eventId) {
-        Event event = eventRepository.findById(eventId).orElseThrow(() -> new EventNotFoundException(eventId));
-
-        Compilation compilation = compilationRepository.findById(compId).orElseThrow(() ->
-                new CompilationNotFoundException(compId));
+        checkEventExists(eventId);
+        checkCompilationExists(compId);
 
-        if (!compilation.getEvents().contains(event)) {
+        if (compilationRepository.deleteEvents(compId, List.of(eventId)) == 0) {
             throw new RequestConditionException("Event с id = " + eventId + " отсутсвует в Compilation с id = " + compId);
         }
-
-        compilation.deleteEvent(event);
-
-        compilationRepository.save(compilation);
+        compositionChanged(compId);
 
         log.info("Event с id={} удалено из Compilation с id={}", eventId, compId);
     }
 
     @Override
     public void addEventToCompilation(long compId, long eventId) {
-        Compilation compilation = compilationRepository.findById(compId).orElseThrow(() -> new CompilationNotFoundException(compId));
-        Event event = eventRepository.findById(eventId).orElseThrow(() -> new EventNotFoundException(eventId));
+        checkCompilationExists(compId);
+        checkEventExists(eventId);
 
-        if (compilation.getEvents().contains(event)) {
+        if (compilationRepository.addEvents(compId, List.of(eventId)) == 0) {
             throw new RequestConditionException("Event с id = " + eventId + " уже в Compilation с id = " + compId);
         }
+        compositionChanged(compId);
 
-        compilation.addEvent(event);
-
-        compilationRepository.save(compilation);
         log.info("Event с id={} добавлено в Compilation с id={}", eventId, compId);
     }
 
+    @Override
+    public void addEventsToCompilation(long compId, long[] eventIds) {
+        checkCompilationExists(compId);
+        List<Long> ids = toIds(eventIds);
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Long> found = new HashSet<>(eventRepository.findExistingIds(ids));
+        ids.stream().filter(id -> !found.contains(id)).findFirst().ifPresent(id -> {
+            throw new EventNotFoundException(id);
+        });
+
+        int added = compilationRepository.addEvents(compId, ids);
+        if (added > 0) {
+            compositionChanged(compId);
+        }
+        log.info("В Compilation с id={} добавлено {} Event из {}", compId, added, ids.size());
+    }
+
+    @Override
+    public void deleteEventsFromCompilation(long compId, long[] eventIds) {
+        checkCompilationExists(compId);
+        List<Long> ids = toIds(eventIds);
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        int deleted = compilationRepository.deleteEvents(compId, ids);
+        if (deleted > 0) {
+            compositionChanged(compId);
+        }
+        log.info("Из Compilation с id={} удалено {} Event", compId, deleted);
+    }
+
     @Override
     public void unpinCompilation(long compId) {
         Compilation compilation = compilationRepository.findById(compId).orElseThrow(() ->
@@ -114,4 +148,28 @@ public class CompilationServiceImpl implements CompilationService {
         compilationRepository.save(compilation);
         log.info("Compilation с id={} размещена на главной странице", compId);
     }
+
+    private void checkCompilationExists(long compId) {
+        if (!compilationRepository.existsById(compId)) {
+            throw new CompilationNotFoundException(compId);
+        }
+    }
+
+    private void checkEventExists(long eventId) {
+        if (!eventRepository.existsById(eventId)) {
+            throw new EventNotFoundException(eventId);
+        }
+    }
+
+    /**
+     * Состав подборки меняется в обход сущности: версию и кэш подборок обновляем сами.
+     */
+    private void compositionChanged(long compId) {
+        compilationRepository.incrementVersion(compId);
+        eventPublisher.publishEvent(new EntityChangedEvent(Compilation.class, compId));
+    }
+
+    private static List<Long> toIds(long[] eventIds) {
+        return Arrays.stream(eventIds).distinct().boxed().collect(Collectors.toList());
+    }
 }
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.explorewithme.models.event.AdminUpdateEventRequest;
 import ru.practicum.explorewithme.models.event.EventFullDto;
 import ru.practicum.explorewithme.models.event.State;
@@ -15,6 +16,7 @@ import ru.practicum.explorewithme.server.models.Event;
 import ru.practicum.explorewithme.server.models.QEvent;
 import ru.practicum.explorewithme.server.repositories.CategoryRepository;
 import ru.practicum.explorewithme.server.repositories.EventRepository;
+import ru.practicum.explorewithme.server.repositories.FeedRepository;
 import ru.practicum.explorewithme.server.services.StatsHandler;
 import ru.practicum.explorewithme.server.services.admin.EventService;
 import ru.practicum.explorewithme.server.utils.mappers.MyMapper;
@@ -30,50 +32,60 @@ import java.util.stream.Collectors;
 import static ru.practicum.explorewithme.server.utils.mappers.EventMapper.makeUpdatableModelAdmin;
 
 
+/**
+ * Изменения событий коммитятся до запроса просмотров в stats-server, чтобы соединение с базой не ждало ответа.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class EventServiceImpl implements EventService {
 
     private final StatsHandler statsHandler;
     private final EventRepository eventRepository;
     private final CategoryRepository categoryRepository;
+    private final FeedRepository feedRepository;
 
     private final MyMapper mapper;
 
+    private final TransactionTemplate transactionTemplate;
+
     @Override
     public List<EventFullDto> getEvents(SelectionConditionForAdmin condition, HttpServletRequest request) {
         log.info("Запрошены Events с параметрами поиска {}", condition);
         QEvent qEvent = QEvent.event;
         SearchParam param = condition.getSearchParameters(qEvent);
 
-        return eventRepository.findAll(param.getBooleanExpression(), param.getPageable()).stream()
+        return eventRepository.findAllWithDescription(param.getBooleanExpression(), param.getPageable()).stream()
                 .peek(statsHandler::statsHandle).map(mapper::toEventFull)
                 .collect(Collectors.toList());
     }
 
     @Override
     public EventFullDto updateEvent(long eventId, AdminUpdateEventRequest updateEventRequest) {
-        Event event = eventRepository.findById(eventId).orElseThrow(() -> new EventNotFoundException(eventId));
+        Event event = transactionTemplate.execute(status -> {
+            Event updated = eventRepository.findWithDescriptionById(eventId)
+                    .orElseThrow(() -> new EventNotFoundException(eventId));
 
-        if (updateEventRequest.getCategory() != null) {
-            Category category = categoryRepository.findById(updateEventRequest.getCategory()).orElseThrow(() ->
-                    new CategoryNotFoundException(updateEventRequest.getCategory()));
-            event.setCategory(category);
-        }
+            if (updateEventRequest.getCategory() != null) {
+                Category category = categoryRepository.findById(updateEventRequest.getCategory()).orElseThrow(() ->
+                        new CategoryNotFoundException(updateEventRequest.getCategory()));
+                updated.setCategory(category);
+            }
 
-        makeUpdatableModelAdmin(event, updateEventRequest);
+            makeUpdatableModelAdmin(updated, updateEventRequest);
 
-        event = eventRepository.save(event);
+            return eventRepository.save(updated);
+        });
         log.info("Event с id={} обновлен. Новые параметры {}", eventId, updateEventRequest);
 
         return mapper.toEventFull(statsHandler.statsHandle(event));
     }
 
     @Override
+    @Transactional
     public EventFullDto publishEvent(long eventId) {
-        Event event = eventRepository.findById(eventId).orElseThrow(() -> new EventNotFoundException(eventId));
+        Event event = eventRepository.findWithDescriptionById(eventId)
+                .orElseThrow(() -> new EventNotFoundException(eventId));
 
         if (event.getState() != State.PENDING) {
             throw new RequestConditionException("Можно публиковать события только со статусом на рассмотрении");
@@ -86,23 +98,28 @@ public class EventServiceImpl implements EventService {
         event.setPublished(LocalDateTime.now());
 
         event = eventRepository.save(event);
+        int delivered = feedRepository.fanOutPublication(eventId, event.getPublished());
 
-        log.info("Event с id={} опубликован {}", eventId, event.getPublished());
+        log.info("Event с id={} опубликован {} и добавлен в ленты {} подписчиков", eventId, event.getPublished(),
+                delivered);
 
         return mapper.toEventFull(event);
     }
 
     @Override
     public EventFullDto rejectEvent(long eventId) {
-        Event event = eventRepository.findById(eventId).orElseThrow(() -> new EventNotFoundException(eventId));
+        Event event = transactionTemplate.execute(status -> {
+            Event rejected = eventRepository.findWithDescriptionById(eventId)
+                    .orElseThrow(() -> new EventNotFoundException(eventId));
 
-        if (event.getState() != State.PENDING) {
-            throw new RequestConditionException("Отменить можно только события находящиеся на рассмотрении");
-        }
+            if (rejected.getState() != State.PENDING) {
+                throw new RequestConditionException("Отменить можно только события находящиеся на рассмотрении");
+            }
 
-        event.setState(State.CANCELED);
+            rejected.setState(State.CANCELED);
 
-        event = eventRepository.save(event);
+            return eventRepository.save(rejected);
+        });
 
         log.info("Event с id={} отменен", eventId);
 
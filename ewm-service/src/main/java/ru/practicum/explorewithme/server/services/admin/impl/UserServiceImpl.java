@@ -47,8 +47,8 @@ public class UserServiceImpl implements UserService {
         log.info("Add new user {}", newUserRequest);
         User user = repository.save(mapper.toUser(newUserRequest));
 
-        groupRepository.save(new Group(user, FriendshipGroup.FRIENDS_ALL.name()));
-        groupRepository.save(new Group(user, FriendshipGroup.FOLLOWER.name()));
+        groupRepository.saveAll(List.of(new Group(user, FriendshipGroup.FRIENDS_ALL),
+                new Group(user, FriendshipGroup.FOLLOWER)));
 
         return mapper.toUserDto(user);
     }
@@ -0,0 +1,9 @@
+package ru.practicum.explorewithme.server.services.priv;
+
+import ru.practicum.explorewithme.models.subscription.feed.FeedEntryDto;
+
+import java.util.List;
+
+public interface PrivateFeedService {
+    List<FeedEntryDto> getFeed(long userId, Long beforeId, int size);
+}
@@ -7,6 +7,7 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.explorewithme.models.event.*;
 import ru.practicum.explorewithme.models.request.ParticipationRequestDto;
 import ru.practicum.explorewithme.models.request.RequestStatus;
+import ru.practicum.explorewithme.models.subscription.group.FriendshipGroup;
 import ru.practicum.explorewithme.server.exceptions.notfound.CategoryNotFoundException;
 import ru.practicum.explorewithme.server.exceptions.notfound.EventNotFoundException;
 import ru.practicum.explorewithme.server.exceptions.notfound.RequestNotFoundException;
@@ -56,7 +57,7 @@ public class PrivateEventServiceImpl implements PrivateEventService {
 
     @Override
     public EventFullDto updateEvent(long userId, UpdateEventRequest request) {
-        Event event = eventRepository.findByInitiator_IdAndId(userId, request.getEventId())
+        Event event = eventRepository.findWithDescriptionByInitiatorIdAndId(userId, request.getEventId())
                 .orElseThrow(() -> new EventNotFoundException(request.getEventId()));
 
         Category category;
@@ -96,7 +97,7 @@ public class PrivateEventServiceImpl implements PrivateEventService {
 
     @Override
     public EventFullDto getEventByOwnerIdAndEventId(long userId, long eventId) {
-        Event event = eventRepository.findByInitiator_IdAndId(userId, eventId)
+        Event event = eventRepository.findWithDescriptionByInitiatorIdAndId(userId, eventId)
                 .orElseThrow(() -> new EventNotFoundException(eventId));
 
         log.info("Event {} с id = {} запрошен владельцем с id = {}", event.getTitle(), eventId, userId);
@@ -107,7 +108,7 @@ public class PrivateEventServiceImpl implements PrivateEventService {
     @Override
     public EventFullDto cancelEventByOwner(long userId, long eventId) {
         userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
-        Event event = eventRepository.findByInitiator_IdAndId(userId, eventId)
+        Event event = eventRepository.findWithDescriptionByInitiatorIdAndId(userId, eventId)
                 .orElseThrow(() -> new EventNotFoundException(eventId));
 
         switch (event.getState()) {
@@ -167,27 +168,24 @@ public class PrivateEventServiceImpl implements PrivateEventService {
 
     @Override
     public List<EventFullDto> getEventsWhereParticipant(long userFollowerId, Long userId, SelectionConditionForPrivate selection) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
-
         if (userFollowerId == userId) {
             throw new RequestConditionException("Нет доступа");
         }
 
         QEvent qEvent = QEvent.event;
-        List<Long> eventIds;
+        SearchParam param = selection.getSearchParametersParticipant(qEvent);
 
-        Group group = followersRepository.findByPublisher_IdAndFollower_Id(userId, userFollowerId).filter(f ->
-                !f.getGroup().getTitle().equals("FOLLOWER")).map(Follower::getGroup).orElseThrow(() ->
-                new RequestConditionException("Доступно только для друзей пользователя"));
+        List<Event> events = eventRepository.findEventsWhereParticipant(userId, userFollowerId,
+                param.getBooleanExpression(), param.getPageable());
 
-        Group groupAll = groupRepository.findByUser_IdAndTitleIgnoreCase(userId, "Friends_all").get();
-
-        eventIds = requestRepository.findEventIdsWhereRequestStatusConfirmedAndGroup(userId, group, groupAll);
-
-        SearchParam param = selection.getSearchParametersParticipant(qEvent, eventIds);
+        if (events.isEmpty()) {
+            userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
+            followersRepository.findByPublisher_IdAndFollower_Id(userId, userFollowerId).filter(f ->
+                    f.getKind() != FriendshipGroup.FOLLOWER).orElseThrow(() ->
+                    new RequestConditionException("Доступно только для друзей пользователя"));
+        }
 
-        return eventRepository.findAll(param.getBooleanExpression(), param.getPageable()).stream()
-                .map(mapper::toEventFull).collect(Collectors.toList());
+        return events.stream().map(mapper::toEventFull).collect(Collectors.toList());
     }
 
     @Override
@@ -204,7 +202,7 @@ public class PrivateEventServiceImpl implements PrivateEventService {
         QEvent qEvent = QEvent.event;
         SearchParam param = selection.getSearchParametersCreator(qEvent);
 
-        return eventRepository.findAll(param.getBooleanExpression(), param.getPageable()).stream()
+        return eventRepository.findAllWithDescription(param.getBooleanExpression(), param.getPageable()).stream()
                 .map(mapper::toEventFull).collect(Collectors.toList());
     }
 }
@@ -0,0 +1,38 @@
+package ru.practicum.explorewithme.server.services.priv.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.explorewithme.models.subscription.feed.FeedEntryDto;
+import ru.practicum.explorewithme.server.exceptions.notfound.UserNotFoundException;
+import ru.practicum.explorewithme.server.repositories.FeedRepository;
+import ru.practicum.explorewithme.server.repositories.UserRepository;
+import ru.practicum.explorewithme.server.services.priv.PrivateFeedService;
+import ru.practicum.explorewithme.server.utils.mappers.MyMapper;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class PrivateFeedServiceImpl implements PrivateFeedService {
+
+    private final UserRepository userRepository;
+    private final FeedRepository feedRepository;
+    private final MyMapper mapper;
+
+    @Override
+    public List<FeedEntryDto> getFeed(long userId, Long beforeId, int size) {
+        log.info("Запрос ленты пользователем с id={} до записи с id={}", userId, beforeId);
+        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
+
+        long before = beforeId == null ? Long.MAX_VALUE : beforeId;
+
+        return feedRepository.findFeed(userId, before, PageRequest.of(0, size)).stream()
+                .map(mapper::toFeedEntryDto).collect(Collectors.toList());
+    }
+}
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.explorewithme.models.subscription.FollowerDto;
 import ru.practicum.explorewithme.models.subscription.UpdateFollowerDto;
 import ru.practicum.explorewithme.models.user.UserWithSubscriptionDto;
@@ -14,6 +15,7 @@ import ru.practicum.explorewithme.server.exceptions.requestcondition.RequestCond
 import ru.practicum.explorewithme.server.models.Follower;
 import ru.practicum.explorewithme.server.models.Group;
 import ru.practicum.explorewithme.server.models.User;
+import ru.practicum.explorewithme.server.repositories.FeedRepository;
 import ru.practicum.explorewithme.server.repositories.FollowersRepository;
 import ru.practicum.explorewithme.server.repositories.GroupRepository;
 import ru.practicum.explorewithme.server.repositories.UserRepository;
@@ -30,14 +32,17 @@ import static ru.practicum.explorewithme.server.utils.mappers.SubscriptionMapper
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional
 public class PrivateFollowerServiceImpl implements PrivateFollowerService {
 
     private final UserRepository userRepository;
     private final FollowersRepository followersRepository;
     private final GroupRepository groupRepository;
+    private final FeedRepository feedRepository;
     private final MyMapper mapper;
 
     @Override
+    @Transactional(readOnly = true)
     public UserWithSubscriptionDto getUser(long followerId, long userId) {
         log.info("Запрос пользователя с id={} фолловером с id={}", userId, followerId);
         User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
@@ -45,9 +50,6 @@ public class PrivateFollowerServiceImpl implements PrivateFollowerService {
         followersRepository.findByPublisher_IdAndFollower_Id(userId, followerId)
                 .orElseThrow(() -> new FollowerNotFoundException("userFollowerId = " + followerId + " and userId = " + userId));
 
-        user.setFriends(followersRepository.getFriendsAmount(userId));
-        user.setFollowers(followersRepository.getFollowersAmount(userId));
-
         UserWithSubscriptionDto user1 = mapper.toUserWithSubscriptionDto(user);
         log.info("Пользователь {} запрошен", user1);
 
@@ -55,6 +57,7 @@ public class PrivateFollowerServiceImpl implements PrivateFollowerService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FollowerDto> getFollowing(long userFollowerId, long userId, boolean friends, int from, int size) {
         log.info("Запрос подписок пользователя с id={} фолловером с id={}", userId, userFollowerId);
 
@@ -72,6 +75,7 @@ public class PrivateFollowerServiceImpl implements PrivateFollowerService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FollowerDto> getFollowers(long userFollowerId, long userId, boolean friends, int from, int size) {
         log.info("Запрос подписчиков пользователя с id={} фолловером с id={}", userId, userFollowerId);
 
@@ -104,12 +108,19 @@ public class PrivateFollowerServiceImpl implements PrivateFollowerService {
                 new GroupNotFoundException(updFollower.getGroupId()));
 
         follower.setGroup(group);
+        if (group.isFollowerGroup()) {
+            userRepository.changeSubscriptionCounters(follower.getPublisher().getId(), 1, -1);
+        }
+
+        follower = followersRepository.saveAndFlush(follower);
+        feedRepository.deleteHiddenParticipation(follower.getPublisher().getId(), follower.getFollower().getId());
 
         log.info("Профиль подписки с id={} обновлен", followerId);
-        return toFollowerDto(followersRepository.save(follower));
+        return toFollowerDto(follower);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FollowerDto> getOwnFollowing(long userId, boolean friends, int from, int size) {
         log.info("Запрос своих подписок пользователем с id={} и параметром friends={}", userId, friends);
 
@@ -127,6 +138,7 @@ public class PrivateFollowerServiceImpl implements PrivateFollowerService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<FollowerDto> getOwnFollowers(long userId, boolean friends, Long groupId, int from, int size) {
         log.info("Запрос своих подписчиков пользователем с id={} и параметрами friends={} groupId={}", userId, friends,
                 groupId);
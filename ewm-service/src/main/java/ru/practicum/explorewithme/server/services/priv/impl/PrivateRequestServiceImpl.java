@@ -2,12 +2,14 @@ package ru.practicum.explorewithme.server.services.priv.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.explorewithme.models.event.State;
 import ru.practicum.explorewithme.models.request.ParticipationRequestDto;
 import ru.practicum.explorewithme.models.request.ParticipationRequestForSubscription;
 import ru.practicum.explorewithme.models.request.RequestStatus;
+import ru.practicum.explorewithme.models.subscription.group.FriendshipGroup;
 import ru.practicum.explorewithme.server.exceptions.notfound.EventNotFoundException;
 import ru.practicum.explorewithme.server.exceptions.notfound.GroupNotFoundException;
 import ru.practicum.explorewithme.server.exceptions.notfound.RequestNotFoundException;
@@ -18,10 +20,12 @@ import ru.practicum.explorewithme.server.models.Group;
 import ru.practicum.explorewithme.server.models.Request;
 import ru.practicum.explorewithme.server.models.User;
 import ru.practicum.explorewithme.server.repositories.EventRepository;
+import ru.practicum.explorewithme.server.repositories.FeedRepository;
 import ru.practicum.explorewithme.server.repositories.GroupRepository;
 import ru.practicum.explorewithme.server.repositories.RequestRepository;
 import ru.practicum.explorewithme.server.repositories.UserRepository;
 import ru.practicum.explorewithme.server.services.priv.PrivateRequestService;
+import ru.practicum.explorewithme.server.utils.cache.EntityChangedEvent;
 import ru.practicum.explorewithme.server.utils.mappers.RequestMapper;
 
 import java.time.LocalDateTime;
@@ -42,6 +46,9 @@ public class PrivateRequestServiceImpl implements PrivateRequestService {
     private final EventRepository eventRepository;
 
     private final GroupRepository groupRepository;
+    private final FeedRepository feedRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<ParticipationRequestDto> getEventRequestsByUser(long userId) {
@@ -82,6 +89,7 @@ public class PrivateRequestServiceImpl implements PrivateRequestService {
         } else {
             request = Request.makeConfirmed(user, event);
             eventRepository.addConfirmedRequest(eventId);
+            eventPublisher.publishEvent(new EntityChangedEvent(Event.class, eventId));
         }
 
         return toRequestDto(requestRepository.save(request));
@@ -92,6 +100,7 @@ public class PrivateRequestServiceImpl implements PrivateRequestService {
         userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
         Request request = requestRepository.findById(requestId).orElseThrow(() -> new RequestNotFoundException(requestId));
         request.setStatus(RequestStatus.CANCELED);
+        feedRepository.deleteByRequest(requestId);
         return toRequestDto(requestRepository.save(request));
     }
 
@@ -104,8 +113,14 @@ public class PrivateRequestServiceImpl implements PrivateRequestService {
                 new RequestNotFoundException(requestId));
 
         request.addGroup(group);
+        request = requestRepository.save(request);
+
+        int delivered = group.getKind() == FriendshipGroup.FRIENDS_ALL ?
+                feedRepository.fanOutParticipationToFriends(requestId, LocalDateTime.now()) :
+                feedRepository.fanOutParticipationToGroup(requestId, groupId, LocalDateTime.now());
+        log.info("Участие по заявке с id={} добавлено в ленты {} друзей", requestId, delivered);
 
-        return toRequestForSubscription(requestRepository.save(request));
+        return toRequestForSubscription(request);
     }
 
     @Override
@@ -117,7 +132,11 @@ public class PrivateRequestServiceImpl implements PrivateRequestService {
                 new RequestNotFoundException(requestId));
 
         request.deleteGroup(group);
+        request = requestRepository.saveAndFlush(request);
+
+        int removed = feedRepository.deleteHiddenParticipation(requestId);
+        log.info("Участие по заявке с id={} удалено из лент {} друзей", requestId, removed);
 
-        return toRequestForSubscription(requestRepository.save(request));
+        return toRequestForSubscription(request);
     }
 }
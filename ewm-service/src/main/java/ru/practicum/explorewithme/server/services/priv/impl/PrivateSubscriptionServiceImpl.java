@@ -8,6 +8,7 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.explorewithme.models.subscription.NewSubscriptionRequest;
 import ru.practicum.explorewithme.models.subscription.SubscriptionRequestDto;
 import ru.practicum.explorewithme.models.subscription.SubscriptionStatus;
+import ru.practicum.explorewithme.models.subscription.group.FriendshipGroup;
 import ru.practicum.explorewithme.models.subscription.group.GroupDto;
 import ru.practicum.explorewithme.models.subscription.group.NewGroupDto;
 import ru.practicum.explorewithme.server.exceptions.notfound.FollowerNotFoundException;
@@ -18,6 +19,7 @@ import ru.practicum.explorewithme.server.models.Follower;
 import ru.practicum.explorewithme.server.models.Group;
 import ru.practicum.explorewithme.server.models.SubscriptionRequest;
 import ru.practicum.explorewithme.server.models.User;
+import ru.practicum.explorewithme.server.repositories.FeedRepository;
 import ru.practicum.explorewithme.server.repositories.FollowersRepository;
 import ru.practicum.explorewithme.server.repositories.GroupRepository;
 import ru.practicum.explorewithme.server.repositories.SubscriptionRepository;
@@ -45,6 +47,7 @@ public class PrivateSubscriptionServiceImpl implements PrivateSubscriptionServic
     private final UserRepository userRepository;
     private final FollowersRepository followersRepository;
     private final GroupRepository groupRepository;
+    private final FeedRepository feedRepository;
 
     private final MyMapper mapper;
 
@@ -68,9 +71,10 @@ public class PrivateSubscriptionServiceImpl implements PrivateSubscriptionServic
 
         request = subscriptionRepository.save(request);
 
-        Group group = groupRepository.findByUser_IdAndTitleIgnoreCase(publisherId, "FOLLOWER").get();
+        Group group = groupRepository.findByUser_IdAndKind(publisherId, FriendshipGroup.FOLLOWER).get();
         Follower newFollower = new Follower(group, request.getPublisher(), request.getFollower(), request);
         followersRepository.save(newFollower);
+        userRepository.changeSubscriptionCounters(publisherId, 1, 0);
 
         log.info("SubscriptionRequest {} добавлен", request);
         return mapper.toSubscriptionDto(request);
@@ -107,6 +111,12 @@ public class PrivateSubscriptionServiceImpl implements PrivateSubscriptionServic
         request = subscriptionRepository.save(request);
 
         followersRepository.delete(follower);
+        feedRepository.deleteByActorAndOwner(follower.getPublisher().getId(), follower.getFollower().getId());
+        if (follower.getGroup().isFollowerGroup()) {
+            userRepository.changeSubscriptionCounters(follower.getPublisher().getId(), -1, 0);
+        } else {
+            userRepository.changeSubscriptionCounters(follower.getPublisher().getId(), 0, -1);
+        }
 
         return mapper.toSubscriptionDto(request);
     }
@@ -131,13 +141,14 @@ public class PrivateSubscriptionServiceImpl implements PrivateSubscriptionServic
         request.setStatus(SubscriptionStatus.CONSIDER);
 
         Follower follower = followersRepository.findByRequest_Id(subscriptionId).get();
-        Group group = groupRepository.findByUser_IdAndTitleIgnoreCase(publisherId, "FRIENDS_ALL").get();
+        Group group = groupRepository.findByUser_IdAndKind(publisherId, FriendshipGroup.FRIENDS_ALL).get();
 
         follower.setGroup(group);
 
         log.info("Заявка на дружбу по заявке {} подтверждена", request);
 
         followersRepository.save(follower);
+        userRepository.changeSubscriptionCounters(publisherId, -1, 1);
         return mapper.toSubscriptionDto(request);
     }
 
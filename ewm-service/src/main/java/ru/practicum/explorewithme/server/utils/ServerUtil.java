@@ -3,9 +3,12 @@ package ru.practicum.explorewithme.server.utils;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 
 public class ServerUtil {
 
@@ -23,4 +26,11 @@ public class ServerUtil {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
         return date != null && !date.equals("") ? LocalDateTime.parse(date, formatter) : null;
     }
+
+    /**
+     * ETag из версий сущностей ответа: внутренние id и версии наружу не попадают.
+     */
+    public static String makeETag(Collection<String> versions) {
+        return "\"" + DigestUtils.md5DigestAsHex(String.join(",", versions).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
 }
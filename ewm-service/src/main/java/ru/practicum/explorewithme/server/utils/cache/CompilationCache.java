@@ -0,0 +1,120 @@
+package ru.practicum.explorewithme.server.utils.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.explorewithme.models.compilation.CompilationDto;
+import ru.practicum.explorewithme.models.event.EventShortDto;
+import ru.practicum.explorewithme.server.models.Category;
+import ru.practicum.explorewithme.server.models.Compilation;
+import ru.practicum.explorewithme.server.models.Event;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Готовые CompilationDto вместе с версией для ETag по id и id подборок каждой запрошенной страницы: на теплом кэше
+ * и ETag, и ответ берутся из памяти. Сбрасывается после коммита изменений подборки, ее событий или их категорий.
+ * Читатель, начавший загрузку до сброса, мог прочитать старые данные: такой результат в кэш не кладется,
+ * для этого загрузка сверяется со счетчиком поколений.
+ */
+@Component
+public class CompilationCache {
+    private final Cache<Long, Entry> compilations;
+
+    private final Cache<String, List<Long>> pages;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public CompilationCache(MeterRegistry meterRegistry,
+                            @Value("${cache.compilations.max-size}") long maxSize,
+                            @Value("${cache.compilations.expire-after-write}") Duration expireAfterWrite) {
+        this.compilations = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, compilations, "compilations");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "compilation-pages");
+    }
+
+    public List<Long> getPage(Boolean pinned, int from, int size, Supplier<List<Long>> loader) {
+        String key = pinned + ":" + from + ":" + size;
+        List<Long> ids = pages.getIfPresent(key);
+        if (ids == null) {
+            long loadedAt = generation.get();
+            ids = List.copyOf(loader.get());
+            putIfCurrent(pages, key, ids, loadedAt);
+        }
+        return ids;
+    }
+
+    /**
+     * Подборки в порядке ids; отсутствующие в кэше загружаются одним вызовом loader, удаленные пропускаются.
+     */
+    public List<Entry> getAll(List<Long> ids, Function<List<Long>, List<Entry>> loader) {
+        long loadedAt = generation.get();
+        Map<Long, Entry> found = new HashMap<>(compilations.getAllPresent(ids));
+        List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            for (Entry entry : loader.apply(missing)) {
+                found.put(entry.getDto().getId(), entry);
+                putIfCurrent(compilations, entry.getDto().getId(), entry, loadedAt);
+            }
+        }
+        return ids.stream().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent change) {
+        generation.incrementAndGet();  //до удаления: иначе параллельная загрузка успеет положить старые данные
+        if (change.getType() == Compilation.class) {
+            compilations.invalidate(change.getId());
+            pages.invalidateAll();
+        } else if (change.getType() == Event.class) {
+            invalidateIf(event -> event.getId() == change.getId());
+        } else if (change.getType() == Category.class) {
+            invalidateIf(event -> event.getCategory() != null && event.getCategory().getId() == change.getId());
+        }
+    }
+
+    private void invalidateIf(Predicate<EventShortDto> affected) {
+        compilations.asMap().values().removeIf(entry -> entry.getDto().getEvents() != null
+                && entry.getDto().getEvents().stream().anyMatch(affected));
+    }
+
+    private <K, V> void putIfCurrent(Cache<K, V> cache, K key, V value, long loadedAt) {
+        cache.put(key, value);
+        if (generation.get() != loadedAt) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Подборка и ее версия из CompilationRepository.findVersions, прочитанные вместе: версия сбрасывается
+     * с подборкой по тем же изменениям.
+     */
+    @lombok.Value
+    public static class Entry {
+        CompilationDto dto;
+
+        String version;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.explorewithme.server.utils.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.practicum.explorewithme.server.models.Category;
+import ru.practicum.explorewithme.server.models.Compilation;
+import ru.practicum.explorewithme.server.models.Event;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Публикует EntityChangedEvent при записи события, категории или подборки, в том числе при изменении
+ * состава подборки. Вызывается при flush, поэтому подписчики должны ждать коммита.
+ * Нативные update-запросы сюда не попадают - для них событие публикует сервис.
+ */
+@RequiredArgsConstructor
+public class EntityChangeListener {
+    private final ApplicationEventPublisher publisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof Event) {
+            publisher.publishEvent(new EntityChangedEvent(Event.class, ((Event) entity).getId()));
+        } else if (entity instanceof Category) {
+            publisher.publishEvent(new EntityChangedEvent(Category.class, ((Category) entity).getId()));
+        } else if (entity instanceof Compilation) {
+            publisher.publishEvent(new EntityChangedEvent(Compilation.class, ((Compilation) entity).getId()));
+        }
+    }
+}
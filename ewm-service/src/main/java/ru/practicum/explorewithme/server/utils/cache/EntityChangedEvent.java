@@ -0,0 +1,13 @@
+package ru.practicum.explorewithme.server.utils.cache;
+
+import lombok.Value;
+
+/**
+ * Изменение сущности type с данным id: создание, обновление или удаление.
+ */
+@Value
+public class EntityChangedEvent {
+    Class<?> type;
+
+    long id;
+}
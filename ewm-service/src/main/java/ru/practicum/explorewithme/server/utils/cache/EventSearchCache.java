@@ -0,0 +1,100 @@
+package ru.practicum.explorewithme.server.utils.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.explorewithme.models.event.EventSort;
+import ru.practicum.explorewithme.server.models.Event;
+import ru.practicum.explorewithme.server.utils.selectioncondition.SelectionConditionForPublic;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * id событий страницы публичного поиска, который идет в базу, по нормализованному условию. Без дат в условии
+ * нижняя граница now() в ключе округляется до cache.event-search.now-granularity. Сбрасывается целиком после
+ * коммита любого изменения события: от него зависят состав и порядок почти любой выборки.
+ */
+@Component
+public class EventSearchCache {
+    private final Cache<String, List<Long>> pages;
+
+    private final long granularityMillis;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public EventSearchCache(MeterRegistry meterRegistry,
+                            @Value("${cache.event-search.max-size}") long maxSize,
+                            @Value("${cache.event-search.expire-after-write}") Duration expireAfterWrite,
+                            @Value("${cache.event-search.now-granularity}") Duration nowGranularity) {
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.granularityMillis = nowGranularity.toMillis();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "event-search");
+    }
+
+    /**
+     * События страницы: при промахе - из loader, при попадании - по id из rehydrate (он может вернуть не все
+     * события, порядок восстанавливается по ids).
+     */
+    public List<Event> get(SelectionConditionForPublic condition, Supplier<List<Event>> loader,
+                           Function<List<Long>, List<Event>> rehydrate) {
+        String key = keyOf(condition);
+        List<Long> ids = pages.getIfPresent(key);
+        if (ids == null) {
+            long loadedAt = generation.get();
+            List<Event> events = loader.get();
+            pages.put(key, events.stream().map(Event::getId).collect(Collectors.toUnmodifiableList()));
+            if (generation.get() != loadedAt) {
+                pages.invalidate(key);
+            }
+            return events;
+        }
+        Map<Long, Event> events = rehydrate.apply(ids).stream()
+                .collect(Collectors.toMap(Event::getId, Function.identity()));
+        return ids.stream().map(events::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent change) {
+        if (change.getType() == Event.class) {
+            generation.incrementAndGet();
+            pages.invalidateAll();
+        }
+    }
+
+    private String keyOf(SelectionConditionForPublic condition) {
+        String text = condition.getText() == null ? "" : condition.getText().toLowerCase(Locale.ROOT);
+        String categories = condition.getCategories() == null ? "" : Arrays.stream(condition.getCategories())
+                .sorted().distinct().mapToObj(String::valueOf).collect(Collectors.joining(","));
+        String range = condition.getRangeStart() == null && condition.getRangeEnd() == null
+                ? "now/" + LocalDateTime.now().toInstant(ZoneOffset.UTC).toEpochMilli() / granularityMillis
+                : condition.getRangeStart() + "/" + condition.getRangeEnd();
+        String nearby = condition.isNearby()
+                ? condition.getLat() + "," + condition.getLon() + "," + condition.getRadius() : "";
+        //VIEWS сортирует уже загруженную страницу, запрос в базу тот же, что без сортировки
+        boolean sorted = condition.getSort() == EventSort.EVENT_DATE
+                || condition.getSort() == EventSort.DISTANCE && condition.isNearby();
+        int offset = condition.getFrom() / condition.getSize() * condition.getSize();
+        return String.join("|", text, categories, String.valueOf(condition.getPaid()), range,
+                String.valueOf(condition.getAvailable() != null && condition.getAvailable()), nearby,
+                sorted ? condition.getSort().name() : "", offset + ":" + condition.getSize());
+    }
+}
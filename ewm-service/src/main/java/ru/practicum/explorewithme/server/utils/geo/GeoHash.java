@@ -0,0 +1,77 @@
+package ru.practicum.explorewithme.server.utils.geo;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Geohash точек и ячейки, покрывающие круг: по ним поиск рядом идет префиксным диапазоном по индексу
+ * locations.geohash, а не перебором всех мест.
+ */
+public class GeoHash {
+    public static final int PRECISION = 9;
+
+    public static final double KM_PER_DEGREE = 111.32;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    public static String encode(double latitude, double longitude, int precision) {
+        double[] lat = {-90, 90};
+        double[] lon = {-180, 180};
+        StringBuilder hash = new StringBuilder(precision);
+        boolean even = true;
+        int bit = 0;
+        int ch = 0;
+        while (hash.length() < precision) {
+            double[] range = even ? lon : lat;
+            double value = even ? longitude : latitude;
+            double mid = (range[0] + range[1]) / 2;
+            ch <<= 1;
+            if (value >= mid) {
+                ch |= 1;
+                range[0] = mid;
+            } else {
+                range[1] = mid;
+            }
+            even = !even;
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Ячейки самой мелкой точности, при которой ячейка не меньше круга по обеим осям: тогда круг целиком лежит
+     * в ячейке центра и ее соседях. Пусто, если круг больше ячеек любой точности - фильтровать по ним нечего.
+     */
+    public static Set<String> cover(double latitude, double longitude, double radiusKm) {
+        double latRadius = radiusKm / KM_PER_DEGREE;
+        double farthestLat = Math.min(90, Math.abs(latitude) + latRadius);
+        double lonRadius = farthestLat >= 90 ? 360 : latRadius / Math.cos(Math.toRadians(farthestLat));
+        Set<String> cells = new TreeSet<>();
+        for (int precision = PRECISION; precision > 0; precision--) {
+            double cellHeight = 180 / Math.pow(2, 5 * precision / 2);
+            double cellWidth = 360 / Math.pow(2, (5 * precision + 1) / 2);
+            if (cellHeight >= latRadius && cellWidth >= lonRadius) {
+                for (int i = -1; i <= 1; i++) {
+                    for (int j = -1; j <= 1; j++) {
+                        double lat = Math.max(-90, Math.min(90, latitude + i * cellHeight));
+                        double lon = wrapLongitude(longitude + j * cellWidth);
+                        cells.add(encode(lat, lon, precision));
+                    }
+                }
+                return cells;
+            }
+        }
+        return cells;
+    }
+
+    private static double wrapLongitude(double longitude) {
+        if (longitude >= 180) {
+            return longitude - 360;
+        }
+        return longitude < -180 ? longitude + 360 : longitude;
+    }
+}
@@ -5,12 +5,12 @@ import ru.practicum.explorewithme.models.compilation.NewCompilationDto;
 import ru.practicum.explorewithme.server.models.Compilation;
 import ru.practicum.explorewithme.server.models.Event;
 
-import java.util.List;
+import java.util.Set;
 
 @Component
 public class CompilationsMapper {
 
-    public static Compilation toCompilation(NewCompilationDto dto, List<Event> events) {
+    public static Compilation toCompilation(NewCompilationDto dto, Set<Event> events) {
         return new Compilation(dto.getTitle(), dto.getPinned(), events);
     }
 
@@ -9,6 +9,7 @@ import ru.practicum.explorewithme.models.event.EventFullDto;
 import ru.practicum.explorewithme.models.event.EventShortDto;
 import ru.practicum.explorewithme.models.event.Location;
 import ru.practicum.explorewithme.models.subscription.SubscriptionRequestDto;
+import ru.practicum.explorewithme.models.subscription.feed.FeedEntryDto;
 import ru.practicum.explorewithme.models.user.NewUserRequest;
 import ru.practicum.explorewithme.models.user.UserDto;
 import ru.practicum.explorewithme.models.user.UserShortDto;
@@ -50,4 +51,6 @@ public interface MyMapper {
     List<EventShortDto> toMappedList(List<Event> list);
 
     CompilationDto toCompilationDto(Compilation compilation);
+
+    FeedEntryDto toFeedEntryDto(FeedEntry entry);
 }
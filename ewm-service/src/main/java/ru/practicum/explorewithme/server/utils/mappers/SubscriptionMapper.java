@@ -4,6 +4,7 @@ import org.springframework.stereotype.Component;
 import ru.practicum.explorewithme.models.subscription.FollowerDto;
 import ru.practicum.explorewithme.models.subscription.NewSubscriptionRequest;
 import ru.practicum.explorewithme.models.subscription.SubscriptionStatus;
+import ru.practicum.explorewithme.models.subscription.group.FriendshipGroup;
 import ru.practicum.explorewithme.models.subscription.group.GroupDto;
 import ru.practicum.explorewithme.server.models.Follower;
 import ru.practicum.explorewithme.server.models.Group;
@@ -24,7 +25,9 @@ public class SubscriptionMapper {
     }
 
     public static FollowerDto toFollowerDto(Follower follower) {
-        return new FollowerDto(follower.getId(), follower.getGroup().getTitle(), follower.getAdded(),
+        String group = follower.getKind() == FriendshipGroup.CUSTOM ? follower.getGroup().getTitle() :
+                follower.getKind().name();
+        return new FollowerDto(follower.getId(), group, follower.getAdded(),
                 follower.getFollower().getId(), follower.getRequest().getId());
     }
 
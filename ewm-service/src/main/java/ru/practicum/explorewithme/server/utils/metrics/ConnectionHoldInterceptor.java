@@ -0,0 +1,40 @@
+package ru.practicum.explorewithme.server.utils.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Записывает суммарное время удержания JDBC-соединения за один HTTP-запрос с тегами method и uri.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConnectionHoldInterceptor implements HandlerInterceptor {
+    public static final String METRIC = "ewm.jdbc.connection.hold";
+
+    private final MeterRegistry registry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ConnectionHoldListener.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Timer.builder(METRIC)
+                .tag("method", request.getMethod())
+                .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+                .register(registry)
+                .record(ConnectionHoldListener.holdNanos(), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.explorewithme.server.utils.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Суммирует время, на которое сессии Hibernate в текущем потоке занимали JDBC-соединение, от получения из пула
+ * до возврата. Создается Hibernate на каждую сессию; сумму сбрасывает {@link ConnectionHoldInterceptor}.
+ */
+public class ConnectionHoldListener extends BaseSessionEventListener {
+    private static final ThreadLocal<long[]> HOLD_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private long acquiredAt;
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        acquiredAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcConnectionReleaseEnd() {
+        if (acquiredAt != 0) {
+            HOLD_NANOS.get()[0] += System.nanoTime() - acquiredAt;
+            acquiredAt = 0;
+        }
+    }
+
+    public static void reset() {
+        HOLD_NANOS.get()[0] = 0;
+    }
+
+    public static long holdNanos() {
+        return HOLD_NANOS.get()[0];
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.explorewithme.server.utils.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Считает SQL-запросы Hibernate в текущем потоке. Счетчик сбрасывает {@link QueryCountInterceptor}
+ * в начале каждого HTTP-запроса.
+ */
+public class QueryCountInspector implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNTER = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNTER.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNTER.get()[0] = 0;
+    }
+
+    public static int count() {
+        return COUNTER.get()[0];
+    }
+}
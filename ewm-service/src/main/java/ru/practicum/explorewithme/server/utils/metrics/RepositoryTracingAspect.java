@@ -0,0 +1,28 @@
+package ru.practicum.explorewithme.server.utils.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Спаны на вызовы репозиториев. Их в разы больше, чем спанов сервисов, поэтому включаются свойством
+ * tracing.repository-spans.enabled - в профиле local или на время разбора медленных запросов.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "tracing.repository-spans.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class RepositoryTracingAspect {
+    private final Tracer tracer;
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+        return TracingAspect.inSpan(tracer, interfaces[0].getSimpleName(), joinPoint);
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.explorewithme.server.utils.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Замеряет время публичных методов сервисов. Тег exception позволяет отдельно считать ошибки.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    public static final String METRIC = "ewm.service.calls";
+
+    private final MeterRegistry registry;
+
+    @Around("execution(public * ru.practicum.explorewithme.server.services..*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(registry.timer(METRIC,
+                    "class", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                    "method", joinPoint.getSignature().getName(),
+                    "exception", exception));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.explorewithme.server.utils.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Открывает дочерние спаны на вызовы сервисов, чтобы время запроса раскладывалось по слоям.
+ * Спаны репозиториев - в RepositoryTracingAspect.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class TracingAspect {
+    private final Tracer tracer;
+
+    @Around("execution(public * ru.practicum.explorewithme.server.services..*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return inSpan(tracer, joinPoint.getSignature().getDeclaringType().getSimpleName(), joinPoint);
+    }
+
+    static Object inSpan(Tracer tracer, String component, ProceedingJoinPoint joinPoint) throws Throwable {
+        Span span = tracer.nextSpan().name(component + "." + joinPoint.getSignature().getName()).start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
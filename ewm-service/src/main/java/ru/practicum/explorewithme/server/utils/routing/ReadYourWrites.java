@@ -0,0 +1,49 @@
+package ru.practicum.explorewithme.server.utils.routing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Клиент текущего запроса и время его последней записи в primary. Пока с записи прошло меньше, чем отстает
+ * реплика, чтения этого клиента идут в primary.
+ */
+public class ReadYourWrites {
+    private static final ThreadLocal<String> CLIENT = new ThreadLocal<>();
+
+    private final Cache<String, Long> lastWrites;
+
+    public ReadYourWrites(Duration window) {
+        this.lastWrites = Caffeine.newBuilder().expireAfterWrite(window).maximumSize(100_000).build();
+    }
+
+    public static void setClient(@Nullable String client) {
+        CLIENT.set(client);
+    }
+
+    public static void clearClient() {
+        CLIENT.remove();
+    }
+
+    public void recordWrite() {
+        String client = CLIENT.get();
+        if (client != null) {
+            lastWrites.put(client, System.nanoTime());
+        }
+    }
+
+    /**
+     * Время с последней записи клиента текущего запроса; пусто, если записей не было или окно прошло.
+     */
+    public Optional<Duration> sinceLastWrite() {
+        String client = CLIENT.get();
+        if (client == null) {
+            return Optional.empty();
+        }
+        Long writtenAt = lastWrites.getIfPresent(client);
+        return writtenAt == null ? Optional.empty() : Optional.of(Duration.ofNanos(System.nanoTime() - writtenAt));
+    }
+}
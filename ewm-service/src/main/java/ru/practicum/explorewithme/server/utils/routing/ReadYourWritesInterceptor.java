@@ -0,0 +1,41 @@
+package ru.practicum.explorewithme.server.utils.routing;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+/**
+ * Определяет клиента запроса для read-your-writes: пользователь из X-EWM-User-Id или {userId} в пути,
+ * для /admin - общий клиент admin.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadYourWrites.setClient(resolveClient(request));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReadYourWrites.clearClient();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String resolveClient(HttpServletRequest request) {
+        String userId = request.getHeader("X-EWM-User-Id");
+        if (userId == null) {
+            Map<String, String> variables = (Map<String, String>) request.getAttribute(
+                    HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            userId = variables == null ? null : variables.get("userId");
+        }
+        if (userId != null) {
+            return "user:" + userId;
+        }
+        return request.getRequestURI().startsWith("/admin") ? "admin" : null;
+    }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.explorewithme.server.utils.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Направляет read-only транзакции в реплики, остальное - в primary. Реплика пропускается, если она недоступна,
+ * отстает больше maxLag или отстает больше, чем прошло с последней записи клиента (read-your-writes).
+ * Отставание измеряется lagQuery раз в checkInterval. Оборачивается в LazyConnectionDataSourceProxy, чтобы
+ * соединение бралось после того, как транзакция отмечена read-only. Чтения внутри onPrimary идут в primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> ON_PRIMARY = new ThreadLocal<>();
+
+    private final List<Replica> replicas;
+
+    private final ReadYourWrites readYourWrites;
+
+    private final Duration maxLag;
+
+    private final Duration checkInterval;
+
+    private final String lagQuery;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadYourWrites readYourWrites,
+                                    Duration maxLag, Duration checkInterval, String lagQuery) {
+        this.replicas = replicas.entrySet().stream().map(e -> new Replica(e.getKey(), e.getValue()))
+                .collect(Collectors.toList());
+        this.readYourWrites = readYourWrites;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        this.lagQuery = lagQuery;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.replicas.forEach(replica -> Gauge.builder("ewm.datasource.replica.lag", replica,
+                        r -> r.available ? r.lag.toMillis() / 1000.0 : Double.NaN)
+                .tag("replica", replica.name).baseUnit("seconds").register(Metrics.globalRegistry));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWrites.recordWrite();
+                    }
+                });
+            }
+            return routeTo(PRIMARY);
+        }
+        if (ON_PRIMARY.get() != null) {
+            return routeTo(PRIMARY);
+        }
+
+        Optional<Duration> sinceLastWrite = readYourWrites.sinceLastWrite();
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isFreshFor(sinceLastWrite)) {
+                return routeTo(replica.name);
+            }
+        }
+        return routeTo(PRIMARY);
+    }
+
+    /**
+     * Выполняет action так, что read-only транзакции в нем читают primary. Нужно загрузчикам кэшей: прочитанное
+     * из отстающей реплики после сброса кэша вернуло бы в кэш старые данные. Запись при этом не отмечается.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (ON_PRIMARY.get() != null) {
+            return action.get();
+        }
+        ON_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            ON_PRIMARY.remove();
+        }
+    }
+
+    /**
+     * Обновляет отставание и доступность реплик.
+     */
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                rs.next();
+                replica.lag = Duration.ofMillis(Math.round(rs.getDouble(1) * 1000));
+                if (!replica.available) {
+                    log.info("Реплика {} доступна, отставание {}", replica.name, replica.lag);
+                }
+                replica.available = true;
+            } catch (SQLException | RuntimeException e) {
+                if (replica.available) {
+                    log.warn("Реплика {} недоступна, чтения идут в primary: {}", replica.name, e.getMessage());
+                }
+                replica.available = false;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable) {
+                ((Closeable) replica.dataSource).close();
+            }
+        }
+    }
+
+    private String routeTo(String target) {
+        Metrics.counter("ewm.datasource.routing", "target", target).increment();
+        return target;
+    }
+
+    private class Replica {
+        final String name;
+
+        final DataSource dataSource;
+
+        volatile boolean available;
+
+        volatile Duration lag = Duration.ZERO;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * К измеренному отставанию добавляется интервал проверки: за это время реплика могла отстать сильнее.
+         */
+        boolean isFreshFor(Optional<Duration> sinceLastWrite) {
+            Duration worstLag = lag.plus(checkInterval);
+            return available && lag.compareTo(maxLag) <= 0
+                    && sinceLastWrite.map(since -> since.compareTo(worstLag) > 0).orElse(true);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package ru.practicum.explorewithme.server.utils.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.explorewithme.models.category.CategoryDto;
+import ru.practicum.explorewithme.models.event.EventSort;
+import ru.practicum.explorewithme.models.event.EventSuggestionDto;
+import ru.practicum.explorewithme.models.event.State;
+import ru.practicum.explorewithme.models.event.SuggestionsDto;
+import ru.practicum.explorewithme.server.models.Category;
+import ru.practicum.explorewithme.server.models.Event;
+import ru.practicum.explorewithme.server.repositories.CategoryRepository;
+import ru.practicum.explorewithme.server.repositories.EventRepository;
+import ru.practicum.explorewithme.server.services.StatsHandler;
+import ru.practicum.explorewithme.server.utils.cache.EntityChangedEvent;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Подсказки по началу слова в названиях опубликованных предстоящих событий и категорий: префиксные деревья
+ * SuggestTrie в памяти, ключи - название с каждого слова до конца. После коммита изменения событие или категория
+ * перечитывается из базы и переставляется в деревьях в отдельном потоке индекса; раз в
+ * search.suggest.refresh-interval деревья строятся заново вместе с просмотрами из stats-server. Построение идет
+ * без блокировок, в потоке индекса под write-блокировкой только заменяются деревья и повторяются изменения,
+ * пришедшие за время построения.
+ */
+@Component
+@Slf4j
+public class EventSuggestIndex {
+    /**
+     * Длиннее ключи и префиксы обрезаются: подсказка нужна по первым словам, а память на ключ ограничена.
+     */
+    private static final int MAX_KEY_LENGTH = 50;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int BY_VIEWS = 0;
+
+    private static final int BY_DATE = 1;
+
+    private static final List<Comparator<EventEntry>> EVENT_ORDERS = List.of(
+            Comparator.comparingLong(EventEntry::getViews).reversed()
+                    .thenComparing(EventEntry::getEventDate).thenComparingLong(EventEntry::getId),
+            Comparator.comparing(EventEntry::getEventDate).thenComparingLong(EventEntry::getId));
+
+    /**
+     * Категории: сначала короткие названия - они ближе всего к введенному префиксу.
+     */
+    private static final List<Comparator<CategoryEntry>> CATEGORY_ORDERS = List.of(
+            Comparator.comparingInt((CategoryEntry category) -> category.getName().length())
+                    .thenComparing(CategoryEntry::getName).thenComparingLong(CategoryEntry::getId));
+
+    private final EventRepository eventRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final StatsHandler statsHandler;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final int maxSize;
+
+    /**
+     * Запросы читают деревья под read-блокировкой, изменения и замена деревьев идут под write-блокировкой.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Единственный поток, меняющий деревья: изменения применяются по порядку коммитов, а поток коммита не ждет
+     * базу и блокировку.
+     */
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "suggest-index-updater");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Изменения, пришедшие во время построения; не null, пока построение идет. Список пополняет только поток
+     * updater.
+     */
+    private volatile List<EntityChangedEvent> changedDuringRebuild;
+
+    private volatile Map<Long, EventEntry> events = Map.of();
+
+    private Map<Long, CategoryEntry> categories = Map.of();
+
+    /**
+     * null, пока деревья не построены: до этого подсказок нет.
+     */
+    private SuggestTrie<EventEntry> eventTrie;
+
+    private SuggestTrie<CategoryEntry> categoryTrie;
+
+    public EventSuggestIndex(EventRepository eventRepository, CategoryRepository categoryRepository,
+                             StatsHandler statsHandler, PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry, @Value("${search.suggest.enabled}") boolean enabled,
+                             @Value("${search.suggest.max-size}") int maxSize) {
+        this.eventRepository = eventRepository;
+        this.categoryRepository = categoryRepository;
+        this.statsHandler = statsHandler;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        //вызывается и после коммита чужой транзакции; не read-only, чтобы читать из primary, а не из реплики
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        Gauge.builder("ewm.search.suggest.size", this, index -> index.events.size()).register(meterRegistry);
+    }
+
+    /**
+     * Не больше size (и search.suggest.max-size) категорий и событий, в названии которых есть слово, начинающееся
+     * с text; text из нескольких слов ищется как последовательность слов. События - по убыванию просмотров
+     * или, для сортировки EVENT_DATE, ближайшие первыми.
+     */
+    public SuggestionsDto suggest(String text, EventSort sort, int size) {
+        String prefix = String.join(" ", words(text));
+        int limit = Math.max(0, Math.min(size, maxSize));
+        lock.readLock().lock();
+        try {
+            if (eventTrie == null || prefix.isEmpty()) {
+                return new SuggestionsDto(List.of(), List.of());
+            }
+            prefix = prefix.substring(0, Math.min(prefix.length(), MAX_KEY_LENGTH));
+            List<CategoryDto> foundCategories = categoryTrie.find(prefix, 0, limit).stream()
+                    .map(category -> new CategoryDto(category.getId(), category.getName()))
+                    .collect(Collectors.toList());
+            List<EventSuggestionDto> foundEvents = eventTrie.find(prefix,
+                            sort == EventSort.EVENT_DATE ? BY_DATE : BY_VIEWS, limit).stream()
+                    .map(event -> new EventSuggestionDto(event.getId(), event.getTitle(), event.getEventDate(),
+                            event.getViews()))
+                    .collect(Collectors.toList());
+            return new SuggestionsDto(foundCategories, foundEvents);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.suggest.refresh-interval}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        //изменения, закоммиченные до чтения, оно увидит само; более поздние поток индекса повторит после замены
+        List<EntityChangedEvent> changes = new ArrayList<>();
+        changedDuringRebuild = changes;
+        Map<Long, EventEntry> newEvents;
+        Map<Long, CategoryEntry> newCategories;
+        SuggestTrie<EventEntry> newEventTrie;
+        SuggestTrie<CategoryEntry> newCategoryTrie;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Event> upcoming = transactionTemplate.execute(status ->
+                    eventRepository.findAllForIndex(State.PUBLISHED, now));
+            List<Category> allCategories = transactionTemplate.execute(status -> categoryRepository.findAll());
+            //вне транзакции: соединение с базой не ждет stats-server
+            Map<Long, Long> views = statsHandler.getViews(upcoming);
+
+            newEvents = upcoming.stream().collect(Collectors.toMap(Event::getId, event ->
+                    new EventEntry(event.getId(), event.getTitle(), event.getEventDate(), views.get(event.getId()))));
+            newCategories = allCategories.stream().collect(Collectors.toMap(Category::getId,
+                    category -> new CategoryEntry(category.getId(), category.getName())));
+            newEventTrie = SuggestTrie.of(EVENT_ORDERS, maxSize, keysOf(newEvents.values(), EventEntry::getTitle));
+            newCategoryTrie = SuggestTrie.of(CATEGORY_ORDERS, maxSize,
+                    keysOf(newCategories.values(), CategoryEntry::getName));
+        } catch (RuntimeException e) {
+            changedDuringRebuild = null;
+            throw e;
+        }
+
+        updater.execute(() -> {
+            lock.writeLock().lock();
+            try {
+                events = newEvents;
+                categories = newCategories;
+                eventTrie = newEventTrie;
+                categoryTrie = newCategoryTrie;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            changedDuringRebuild = null;
+            changes.forEach(this::apply);
+            log.debug("Подсказки построены: {} событий, {} категорий, повторено изменений: {}",
+                    newEvents.size(), newCategories.size(), changes.size());
+        });
+    }
+
+    /**
+     * Вызывается в потоке коммита, поэтому только передает изменение потоку индекса.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent change) {
+        if (!enabled) {
+            return;
+        }
+        updater.execute(() -> {
+            List<EntityChangedEvent> changes = changedDuringRebuild;
+            if (changes != null) {
+                changes.add(change);
+            }
+            apply(change);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updater.shutdownNow();
+    }
+
+    private void apply(EntityChangedEvent change) {
+        //изменение, закоммиченное до первого построения, построение прочитает само
+        if (eventTrie == null) {
+            return;
+        }
+        try {
+            applyChange(change);
+        } catch (RuntimeException e) {
+            //подсказка поправится при следующем построении
+            log.warn("Не удалось обновить подсказки после изменения {}: {}", change, e.getMessage());
+        }
+    }
+
+    private void applyChange(EntityChangedEvent change) {
+        if (change.getType() == Event.class) {
+            Optional<Event> event = transactionTemplate.execute(status ->
+                    eventRepository.findForIndexById(change.getId()));
+            EventEntry old = events.get(change.getId());
+            //просмотры обновятся при следующем построении
+            EventEntry updated = event.filter(found -> found.getState() == State.PUBLISHED
+                            && found.getEventDate().isAfter(LocalDateTime.now()))
+                    .map(found -> new EventEntry(found.getId(), found.getTitle(), found.getEventDate(),
+                            old == null ? 0 : old.getViews()))
+                    .orElse(null);
+            replace(eventTrie, events, change.getId(), old, updated, EventEntry::getTitle);
+        } else if (change.getType() == Category.class) {
+            Optional<Category> category = transactionTemplate.execute(status ->
+                    categoryRepository.findById(change.getId()));
+            replace(categoryTrie, categories, change.getId(), categories.get(change.getId()),
+                    category.map(found -> new CategoryEntry(found.getId(), found.getName())).orElse(null),
+                    CategoryEntry::getName);
+        }
+    }
+
+    /**
+     * Заменяет old на updated (каждое может быть null) в дереве и в entries. Изменения, не затронувшие
+     * подсказку, например подтвержденные заявки, деревья не трогают.
+     */
+    private <T> void replace(SuggestTrie<T> trie, Map<Long, T> entries, long id, T old, T updated,
+                             Function<T, String> text) {
+        if (Objects.equals(old, updated)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (old != null) {
+                keysOf(text.apply(old)).forEach(key -> trie.remove(key, old));
+                entries.remove(id);
+            }
+            if (updated != null) {
+                keysOf(text.apply(updated)).forEach(key -> trie.add(key, updated));
+                entries.put(id, updated);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static <T> Map<T, Set<String>> keysOf(Iterable<T> entries, Function<T, String> text) {
+        Map<T, Set<String>> keys = new HashMap<>();
+        entries.forEach(entry -> keys.put(entry, keysOf(text.apply(entry))));
+        return keys;
+    }
+
+    /**
+     * Текст с каждого слова до конца: "Джаз в парке" дает "джаз в парке", "в парке" и "парке".
+     */
+    private static Set<String> keysOf(String text) {
+        List<String> words = words(text);
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < words.size(); i++) {
+            String key = String.join(" ", words.subList(i, words.size()));
+            keys.add(key.substring(0, Math.min(key.length(), MAX_KEY_LENGTH)));
+        }
+        return keys;
+    }
+
+    private static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(SEPARATORS.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е')))
+                .filter(word -> !word.isEmpty()).collect(Collectors.toList());
+    }
+
+    @lombok.Value
+    private static class EventEntry {
+        long id;
+
+        String title;
+
+        LocalDateTime eventDate;
+
+        long views;
+    }
+
+    @lombok.Value
+    private static class CategoryEntry {
+        long id;
+
+        String name;
+    }
+}
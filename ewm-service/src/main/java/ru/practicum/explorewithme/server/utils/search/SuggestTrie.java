@@ -0,0 +1,195 @@
+package ru.practicum.explorewithme.server.utils.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Сжатое префиксное дерево: ребро несет строку, а узел - лучшие maxSize значений своего поддерева для каждого
+ * из порядков orders. Поиск проходит только узлы на пути префикса и не перебирает поддерево, добавление
+ * и удаление пересчитывают лучшие значения тех же узлов. Не потокобезопасно.
+ */
+class SuggestTrie<T> {
+    private final List<Comparator<T>> orders;
+
+    private final int maxSize;
+
+    private final Node<T> root = new Node<>("");
+
+    SuggestTrie(List<Comparator<T>> orders, int maxSize) {
+        this.orders = orders;
+        this.maxSize = maxSize;
+        update(root);
+    }
+
+    /**
+     * Дерево по всем ключам сразу: лучшие значения считаются один раз, а не при каждом добавлении.
+     */
+    static <T> SuggestTrie<T> of(List<Comparator<T>> orders, int maxSize, Map<T, ? extends Iterable<String>> keys) {
+        SuggestTrie<T> trie = new SuggestTrie<>(orders, maxSize);
+        keys.forEach((value, valueKeys) -> valueKeys.forEach(key -> trie.insert(key, value, null)));
+        trie.updateAll(trie.root);
+        return trie;
+    }
+
+    void add(String key, T value) {
+        Deque<Node<T>> path = new ArrayDeque<>();
+        insert(key, value, path);
+        path.forEach(this::update);
+    }
+
+    void remove(String key, T value) {
+        Deque<Node<T>> path = new ArrayDeque<>();
+        Node<T> node = root;
+        path.push(node);
+        int position = 0;
+        while (position < key.length()) {
+            node = node.children.get(key.charAt(position));
+            if (node == null || !key.startsWith(node.label, position)) {
+                return;
+            }
+            position += node.label.length();
+            path.push(node);
+        }
+        if (!node.values.remove(value)) {
+            return;
+        }
+        node = path.pop();
+        while (!path.isEmpty()) {
+            Node<T> parent = path.pop();
+            if (node.values.isEmpty() && node.children.isEmpty()) {
+                parent.children.remove(node.label.charAt(0));
+            } else {
+                if (node.values.isEmpty() && node.children.size() == 1) {
+                    absorbChild(node);
+                }
+                update(node);
+            }
+            node = parent;
+        }
+        update(root);
+    }
+
+    /**
+     * Лучшие size значений с ключом, начинающимся с prefix, в порядке orders[order].
+     */
+    List<T> find(String prefix, int order, int size) {
+        Node<T> node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            node = node.children.get(prefix.charAt(position));
+            if (node == null) {
+                return List.of();
+            }
+            int common = commonPrefix(node.label, prefix, position);
+            if (common < node.label.length() && position + common < prefix.length()) {
+                return List.of();
+            }
+            position += common;
+        }
+        List<T> best = node.best.get(order);
+        return new ArrayList<>(best.subList(0, Math.min(size, best.size())));
+    }
+
+    /**
+     * Добавляет значение без пересчета лучших; path, если задан, получает узлы от ключа к корню.
+     */
+    private void insert(String key, T value, Deque<Node<T>> path) {
+        Node<T> node = root;
+        if (path != null) {
+            path.push(node);
+        }
+        int position = 0;
+        while (position < key.length()) {
+            Node<T> child = node.children.get(key.charAt(position));
+            if (child == null) {
+                child = new Node<>(key.substring(position));
+                node.children.put(key.charAt(position), child);
+            } else {
+                int common = commonPrefix(child.label, key, position);
+                if (common < child.label.length()) {
+                    child = split(node, child, common);
+                }
+            }
+            position += child.label.length();
+            node = child;
+            if (path != null) {
+                path.push(node);
+            }
+        }
+        node.values.add(value);
+    }
+
+    /**
+     * Делит ребро к child после common символов; возвращает новый промежуточный узел.
+     */
+    private Node<T> split(Node<T> parent, Node<T> child, int common) {
+        Node<T> middle = new Node<>(child.label.substring(0, common));
+        child.label = child.label.substring(common);
+        middle.children.put(child.label.charAt(0), child);
+        middle.best = child.best;
+        parent.children.put(middle.label.charAt(0), middle);
+        return middle;
+    }
+
+    /**
+     * Склеивает узел без своих значений с его единственным потомком, чтобы дерево оставалось сжатым.
+     */
+    private void absorbChild(Node<T> node) {
+        Node<T> child = node.children.values().iterator().next();
+        node.label += child.label;
+        node.children.clear();
+        node.children.putAll(child.children);
+        node.values.addAll(child.values);
+        node.best = child.best;
+    }
+
+    private void updateAll(Node<T> node) {
+        node.children.values().forEach(this::updateAll);
+        update(node);
+    }
+
+    private void update(Node<T> node) {
+        List<List<T>> best = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            List<T> candidates = new ArrayList<>(node.values);
+            for (Node<T> child : node.children.values()) {
+                candidates.addAll(child.best.get(i));
+            }
+            best.add(candidates.stream().sorted(orders.get(i)).distinct().limit(maxSize)
+                    .collect(Collectors.toList()));
+        }
+        node.best = best;
+    }
+
+    private static int commonPrefix(String label, String key, int position) {
+        int length = Math.min(label.length(), key.length() - position);
+        int common = 0;
+        while (common < length && label.charAt(common) == key.charAt(position + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    private static class Node<T> {
+        String label;
+
+        final Map<Character, Node<T>> children = new HashMap<>();
+
+        /**
+         * Значения, ключ которых заканчивается в этом узле.
+         */
+        final List<T> values = new ArrayList<>(1);
+
+        List<List<T>> best;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package ru.practicum.explorewithme.server.utils.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.explorewithme.models.event.EventFacet;
+import ru.practicum.explorewithme.models.event.EventSort;
+import ru.practicum.explorewithme.models.event.State;
+import ru.practicum.explorewithme.server.models.Category;
+import ru.practicum.explorewithme.server.models.Event;
+import ru.practicum.explorewithme.server.repositories.EventRepository;
+import ru.practicum.explorewithme.server.utils.cache.EntityChangedEvent;
+import ru.practicum.explorewithme.server.utils.selectioncondition.SelectionConditionForPublic;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Опубликованные предстоящие события в памяти, упорядоченные по eventDate. Публичный поиск без text отвечается
+ * отсюда: диапазон дат - отрезок позиций, категории, paid и available - битовые карты Roaring по тем же позициям.
+ * Снимок индекса неизменяемый и заменяется целиком. После коммита изменения id события только запоминается:
+ * раз в search.index.update-delay накопленные события перечитываются из базы одним запросом и снимок строится
+ * один раз на всю пачку. Раз в search.index.refresh-interval индекс строится заново - заодно из него выпадают
+ * прошедшие события.
+ */
+@Component
+@Slf4j
+public class UpcomingEventIndex {
+    private static final Comparator<Event> BY_DATE = Comparator.comparing(Event::getEventDate)
+            .thenComparingLong(Event::getId);
+
+    private final EventRepository eventRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final Counter hits;
+
+    private final Counter misses;
+
+    /**
+     * События индекса по id; меняется только под блокировкой индекса.
+     */
+    private final Map<Long, Event> events = new HashMap<>();
+
+    /**
+     * id событий, измененных после последнего обновления; пополняется потоком коммита без блокировки.
+     */
+    private final Set<Long> changedEvents = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean categoriesChanged = new AtomicBoolean();
+
+    /**
+     * null, пока индекс не построен: до этого поиск идет в базу.
+     */
+    private volatile Snapshot snapshot;
+
+    public UpcomingEventIndex(EventRepository eventRepository, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry, @Value("${search.index.enabled}") boolean enabled) {
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        //не read-only, чтобы читать из primary, а не из реплики
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.hits = meterRegistry.counter("ewm.search.index.queries", "result", "hit");
+        this.misses = meterRegistry.counter("ewm.search.index.queries", "result", "miss");
+        Gauge.builder("ewm.search.index.size", this, index -> {
+            Snapshot current = index.snapshot;
+            return current == null ? 0 : current.events.length;
+        }).register(meterRegistry);
+    }
+
+    /**
+     * Страница событий по условию публичного поиска, в порядке eventDate (для сортировки EVENT_DATE - обратном).
+     * Пусто, если индекс не построен или условие требует базы: поиск по тексту, поиск рядом (его ведет индекс
+     * locations.geohash) или диапазон дат, захватывающий прошедшие события. Возвращаются копии: в них проставляются просмотры.
+     */
+    public Optional<List<Event>> search(SelectionConditionForPublic condition) {
+        Snapshot current = snapshotFor(condition);
+        if (current == null) {
+            return Optional.empty();
+        }
+        RoaringBitmap result = current.filter(condition, null);
+        int count = result.getCardinality();
+        int offset = condition.getFrom() / condition.getSize() * condition.getSize();
+        boolean descending = condition.getSort() == EventSort.EVENT_DATE;
+        List<Event> page = new ArrayList<>();
+        for (int i = offset; i < Math.min(count, offset + condition.getSize()); i++) {
+            page.add(copyOf(current.events[result.select(descending ? count - 1 - i : i)]));
+        }
+        return Optional.of(page);
+    }
+
+    /**
+     * Число событий на каждое значение поля facet при остальных условиях поиска; пусто в тех же случаях, что
+     * и search. Значения без событий не выводятся, кроме true/false у paid.
+     */
+    public Optional<Map<String, Long>> countFacet(SelectionConditionForPublic condition, EventFacet facet) {
+        Snapshot current = snapshotFor(condition);
+        if (current == null) {
+            return Optional.empty();
+        }
+        RoaringBitmap matched = current.filter(condition, facet);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (facet == EventFacet.CATEGORY) {
+            current.byCategory.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(category -> {
+                long count = RoaringBitmap.andCardinality(matched, category.getValue());
+                if (count > 0) {
+                    counts.put(category.getKey().toString(), count);
+                }
+            });
+        } else {
+            long paid = RoaringBitmap.andCardinality(matched, current.paid);
+            counts.put("true", paid);
+            counts.put("false", matched.getLongCardinality() - paid);
+        }
+        return Optional.of(counts);
+    }
+
+    /**
+     * Копии событий индекса с данными id; событий, которых в индексе нет, в ответе нет.
+     */
+    public Map<Long, Event> find(Collection<Long> ids) {
+        Snapshot current = snapshot;
+        Map<Long, Event> found = new HashMap<>();
+        if (current != null) {
+            ids.stream().map(current.byId::get).filter(Objects::nonNull)
+                    .forEach(event -> found.put(event.getId(), copyOf(event)));
+        }
+        return found;
+    }
+
+    @Scheduled(fixedDelayString = "${search.index.refresh-interval}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        //изменения, закоммиченные до чтения, оно увидит само; более поздние применит applyChanges
+        changedEvents.clear();
+        categoriesChanged.set(false);
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> upcoming = transactionTemplate.execute(status ->
+                eventRepository.findAllForIndex(State.PUBLISHED, now));
+        events.clear();
+        upcoming.forEach(event -> events.put(event.getId(), event));
+        snapshot = new Snapshot(events.values());
+        log.debug("Индекс предстоящих событий построен: {} событий", upcoming.size());
+    }
+
+    /**
+     * Перечитывает события, измененные после прошлого вызова, и строит один снимок на все изменения.
+     */
+    @Scheduled(fixedDelayString = "${search.index.update-delay}")
+    public synchronized void applyChanges() {
+        //изменения до первого построения построение прочитает само
+        if (snapshot == null) {
+            return;
+        }
+        if (categoriesChanged.get()) {
+            rebuild();
+            return;
+        }
+        List<Long> ids = new ArrayList<>(changedEvents);
+        if (ids.isEmpty()) {
+            return;
+        }
+        changedEvents.removeAll(ids);
+        LocalDateTime now = LocalDateTime.now();
+        List<Event> found = transactionTemplate.execute(status -> eventRepository.findAllForSearchById(ids));
+        ids.forEach(events::remove);
+        found.stream().filter(event -> event.getState() == State.PUBLISHED && event.getEventDate().isAfter(now))
+                .forEach(event -> events.put(event.getId(), event));
+        snapshot = new Snapshot(events.values());
+        log.debug("Индекс предстоящих событий обновлен: {} измененных событий", ids.size());
+    }
+
+    /**
+     * Вызывается в потоке коммита, поэтому только запоминает изменение: база читается в applyChanges.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent change) {
+        if (!enabled) {
+            return;
+        }
+        if (change.getType() == Event.class) {
+            changedEvents.add(change.getId());
+        } else if (change.getType() == Category.class) {
+            categoriesChanged.set(true);
+        }
+    }
+
+    /**
+     * Снимок, если индекс может ответить на условие, иначе null.
+     */
+    private Snapshot snapshotFor(SelectionConditionForPublic condition) {
+        Snapshot current = snapshot;
+        LocalDateTime start = condition.getRangeStart();
+        boolean hasText = condition.getText() != null && !condition.getText().isBlank();
+        if (current == null || hasText || condition.isNearby()
+                || (start == null ? condition.getRangeEnd() != null : start.isBefore(LocalDateTime.now()))) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return current;
+    }
+
+    private static Event copyOf(Event source) {
+        Event event = new Event();
+        event.setId(source.getId());
+        event.setTitle(source.getTitle());
+        event.setAnnotation(source.getAnnotation());
+        event.setInitiator(source.getInitiator());
+        event.setCategory(source.getCategory());
+        event.setCreated(source.getCreated());
+        event.setEventDate(source.getEventDate());
+        event.setPublished(source.getPublished());
+        event.setLocation(source.getLocation());
+        event.setPaid(source.isPaid());
+        event.setParticipantLimit(source.getParticipantLimit());
+        event.setModeration(source.isModeration());
+        event.setState(source.getState());
+        event.setNumberConfirmed(source.getNumberConfirmed());
+        event.setVersion(source.getVersion());
+        return event;
+    }
+
+    private static class Snapshot {
+        final Event[] events;
+
+        final Map<Long, Event> byId = new HashMap<>();
+
+        final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+
+        final RoaringBitmap paid = new RoaringBitmap();
+
+        final RoaringBitmap available = new RoaringBitmap();
+
+        Snapshot(Collection<Event> source) {
+            events = source.stream().sorted(BY_DATE).toArray(Event[]::new);
+            for (int i = 0; i < events.length; i++) {
+                Event event = events[i];
+                byId.put(event.getId(), event);
+                byCategory.computeIfAbsent(event.getCategory().getId(), id -> new RoaringBitmap()).add(i);
+                if (event.isPaid()) {
+                    paid.add(i);
+                }
+                if (event.getNumberConfirmed() < event.getParticipantLimit()) {
+                    available.add(i);
+                }
+            }
+            byCategory.values().forEach(RoaringBitmap::runOptimize);
+            paid.runOptimize();
+            available.runOptimize();
+        }
+
+        /**
+         * Позиции событий, подходящих под условие; фильтр по полю excluded не применяется.
+         */
+        RoaringBitmap filter(SelectionConditionForPublic condition, EventFacet excluded) {
+            LocalDateTime start = condition.getRangeStart();
+            LocalDateTime end = condition.getRangeEnd();
+            //те же границы, что у dateExpression: after строгое, between включает обе даты
+            int from = start == null ? firstAfter(LocalDateTime.now(), false) : firstAfter(start, end != null);
+            int to = end == null ? events.length : firstAfter(end, false);
+            RoaringBitmap result = from < to ? RoaringBitmap.bitmapOfRange(from, to) : new RoaringBitmap();
+
+            int[] categories = condition.getCategories();
+            if (categories != null && categories.length != 0 && excluded != EventFacet.CATEGORY) {
+                result.and(RoaringBitmap.or(Arrays.stream(categories)
+                        .mapToObj(categoryId -> byCategory.get((long) categoryId))
+                        .filter(Objects::nonNull).iterator()));
+            }
+            if (condition.getPaid() != null && excluded != EventFacet.PAID) {
+                if (condition.getPaid()) {
+                    result.and(paid);
+                } else {
+                    result.andNot(paid);
+                }
+            }
+            if (condition.getAvailable() != null && condition.getAvailable()) {
+                result.and(available);
+            }
+            return result;
+        }
+
+        /**
+         * Первая позиция с eventDate позже date (inclusive - не раньше date).
+         */
+        int firstAfter(LocalDateTime date, boolean inclusive) {
+            int low = 0;
+            int high = events.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = events[mid].getEventDate().compareTo(date);
+                if (cmp > 0 || inclusive && cmp == 0) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+    }
+}
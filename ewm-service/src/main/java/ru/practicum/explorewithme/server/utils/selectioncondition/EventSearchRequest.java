@@ -0,0 +1,27 @@
+package ru.practicum.explorewithme.server.utils.selectioncondition;
+
+import lombok.Data;
+import ru.practicum.explorewithme.models.event.EventFacet;
+import ru.practicum.explorewithme.models.event.EventSort;
+
+import java.util.Set;
+
+/**
+ * Параметры публичного поиска событий из строки запроса GET /events.
+ */
+@Data
+public class EventSearchRequest {
+    private String text;
+    private int[] categories;
+    private Boolean paid;
+    private String rangeStart;
+    private String rangeEnd;
+    private Boolean available;
+    private Double lat;
+    private Double lon;
+    private Double radius;
+    private EventSort sort = EventSort.EVENT_DATE;
+    private int from = 0;
+    private int size = 10;
+    private Set<EventFacet> facets;
+}
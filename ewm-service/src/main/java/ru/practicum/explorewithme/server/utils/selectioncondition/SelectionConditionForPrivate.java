@@ -40,12 +40,10 @@ public class SelectionConditionForPrivate {
         return new SelectionConditionForPrivate(userId, state, startDate, endDate, available, from, size);
     }
 
-    public SearchParam getSearchParametersParticipant(QEvent event, List<Long> ids) {
+    public SearchParam getSearchParametersParticipant(QEvent event) {
         List<BooleanExpression> parameters = getBase(event);
 
-        parameters.add(event.id.in(ids));
-
-        BooleanExpression searchExpression = parameters.stream().reduce(BooleanExpression::and).get();
+        BooleanExpression searchExpression = parameters.stream().reduce(BooleanExpression::and).orElse(null);
 
         return new SearchParam(searchExpression, makePageable(from, size));
     }
@@ -1,18 +1,23 @@
 package ru.practicum.explorewithme.server.utils.selectioncondition;
 
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.NumberExpression;
 import lombok.Getter;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.querydsl.QSort;
+import ru.practicum.explorewithme.models.event.EventFacet;
 import ru.practicum.explorewithme.models.event.EventSort;
 import ru.practicum.explorewithme.models.event.State;
 import ru.practicum.explorewithme.server.models.QEvent;
+import ru.practicum.explorewithme.server.utils.geo.GeoHash;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static ru.practicum.explorewithme.server.utils.ServerUtil.makePageable;
@@ -28,33 +33,75 @@ public class SelectionConditionForPublic {
     private LocalDateTime rangeStart;
     private LocalDateTime rangeEnd;
     private Boolean available;
+    private Double lat;
+    private Double lon;
+    private Double radius;
     private EventSort sort;
     private int from;
     private int size;
 
     private SelectionConditionForPublic(String text, int[] categories, Boolean paid, LocalDateTime rangeStart,
-                                        LocalDateTime rangeEnd, Boolean available, EventSort sort, int from, int size) {
+                                        LocalDateTime rangeEnd, Boolean available, Double lat, Double lon,
+                                        Double radius, EventSort sort, int from, int size) {
         this.text = text;
         this.categories = categories;
         this.paid = paid;
         this.rangeStart = rangeStart;
         this.rangeEnd = rangeEnd;
         this.available = available;
+        this.lat = lat;
+        this.lon = lon;
+        this.radius = radius;
         this.sort = sort;
         this.from = from;
         this.size = size;
     }
 
     public static SelectionConditionForPublic of(String text, int[] categories, Boolean paid, String rangeStart,
-                                                 String rangeEnd, Boolean available, EventSort sort, int from, int size) {
+                                                 String rangeEnd, Boolean available, Double lat, Double lon,
+                                                 Double radius, EventSort sort, int from, int size) {
 
         LocalDateTime start = rangeStart != null && !rangeStart.equals("") ? LocalDateTime.parse(rangeStart, formatter) : null;
         LocalDateTime end = rangeEnd != null && !rangeEnd.equals("") ? LocalDateTime.parse(rangeEnd, formatter) : null;
 
-        return new SelectionConditionForPublic(text, categories, paid, start, end, available, sort, from, size);
+        return new SelectionConditionForPublic(text, categories, paid, start, end, available, lat, lon, radius,
+                sort, from, size);
+    }
+
+    public static SelectionConditionForPublic of(EventSearchRequest request) {
+        return of(request.getText(), request.getCategories(), request.getPaid(), request.getRangeStart(),
+                request.getRangeEnd(), request.getAvailable(), request.getLat(), request.getLon(), request.getRadius(),
+                request.getSort(), request.getFrom(), request.getSize());
+    }
+
+    /**
+     * Поиск в радиусе radius км от lat, lon.
+     */
+    public boolean isNearby() {
+        return lat != null && lon != null && radius != null;
     }
 
     public SearchParam getSearchParameters(QEvent event) {
+        Pageable pageable = makePageable(from, size);
+
+        if (sort != null && sort == EventSort.EVENT_DATE) {
+            Sort sorting = Sort.by("eventDate").descending();
+            pageable = makePageable(from, size, sorting);
+        } else if (sort == EventSort.DISTANCE && isNearby()) {
+            pageable = makePageable(from, size, new QSort(distanceSquared(event).asc(), event.id.asc()));
+        }
+
+        return new SearchParam(getExpression(event, Set.of()), pageable);
+    }
+
+    /**
+     * Условие поиска без фильтров по полям excluded: по нему считается число событий на каждое значение полей.
+     */
+    public BooleanExpression getFacetExpression(QEvent event, Set<EventFacet> excluded) {
+        return getExpression(event, excluded);
+    }
+
+    private BooleanExpression getExpression(QEvent event, Set<EventFacet> excluded) {
         List<BooleanExpression> parameters = new ArrayList<>();
 
         if (text != null && !text.equals("")) {
@@ -63,13 +110,13 @@ public class SelectionConditionForPublic {
             parameters.add(statesExpression);
         }
 
-        if (categories != null && categories.length != 0) {
+        if (categories != null && categories.length != 0 && !excluded.contains(EventFacet.CATEGORY)) {
             List<Long> catIds = Arrays.stream(categories).mapToLong(i -> i).boxed().collect(Collectors.toList());
             BooleanExpression categoryExpression = event.category.id.in(catIds);
             parameters.add(categoryExpression);
         }
 
-        if (paid != null) {
+        if (paid != null && !excluded.contains(EventFacet.PAID)) {
             parameters.add(event.paid.eq(paid));
         }
 
@@ -81,16 +128,36 @@ public class SelectionConditionForPublic {
             parameters.add(event.numberConfirmed.lt(event.participantLimit));
         }
 
-        Pageable pageable = makePageable(from, size);
-
-        if (sort != null && sort == EventSort.EVENT_DATE) {
-            Sort sorting = Sort.by("eventDate").descending();
-            pageable = makePageable(from, size, sorting);
+        if (isNearby()) {
+            parameters.add(nearbyExpression(event));
         }
 
-        BooleanExpression searchExpression = parameters.stream().reduce(BooleanExpression::and).get();
+        return parameters.stream().reduce(BooleanExpression::and).get();
+    }
+
+    /**
+     * Ячейки geohash, покрывающие круг, выбирают места по индексу; точная граница - по расстоянию.
+     */
+    private BooleanExpression nearbyExpression(QEvent event) {
+        double radiusDegrees = radius / GeoHash.KM_PER_DEGREE;
+        BooleanExpression inCircle = distanceSquared(event).loe(radiusDegrees * radiusDegrees);
+        return GeoHash.cover(lat, lon, radius).stream()
+                .map(cell -> event.location.geohash.startsWith(cell))
+                .reduce(BooleanExpression::or)
+                .map(inCells -> inCells.and(inCircle))
+                .orElse(inCircle);
+    }
 
-        return new SearchParam(searchExpression, pageable);
+    /**
+     * Квадрат расстояния до центра в градусах широты, в равнопромежуточной проекции вокруг центра: для радиусов
+     * до сотен километров погрешность мала, а в запросе обходимся без тригонометрии.
+     */
+    private NumberExpression<Double> distanceSquared(QEvent event) {
+        double lonScale = Math.cos(Math.toRadians(lat));
+        NumberExpression<Double> dLat = event.location.latitude.castToNum(Double.class).subtract(lat);
+        NumberExpression<Double> dLon = event.location.longitude.castToNum(Double.class).subtract(lon)
+                .multiply(lonScale);
+        return dLat.multiply(dLat).add(dLon.multiply(dLon));
     }
 
     private BooleanExpression dateExpression(LocalDateTime rangeStart, LocalDateTime rangeEnd, QEvent event) {
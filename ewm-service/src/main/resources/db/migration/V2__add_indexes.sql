@@ -0,0 +1,21 @@
+create index if not exists events_state_event_date_idx on events (state, event_date);
+
+create index if not exists events_initiator_idx on events (initiator);
+
+create index if not exists events_category_idx on events (category);
+
+create index if not exists participation_requests_requestor_status_idx on participation_requests (requestor, status);
+
+create index if not exists participation_requests_event_idx on participation_requests (event);
+
+create index if not exists subscription_follower_status_idx on subscription (follower, status);
+
+create index if not exists groups_publisher_title_idx on groups (publisher, title);
+
+create index if not exists followers_publisher_group_level_idx on followers (publisher, group_level);
+
+create index if not exists followers_follower_idx on followers (follower);
+
+create index if not exists followers_subscription_idx on followers (subscription);
+
+create index if not exists request_group_group_level_idx on request_group (group_level);
@@ -0,0 +1,9 @@
+alter table users add column if not exists followers_count bigint not null default 0;
+
+alter table users add column if not exists friends_count bigint not null default 0;
+
+update users u set
+    followers_count = (select count(*) from followers f join groups g on g.id = f.group_level
+                       where f.publisher = u.id and g.title = 'FOLLOWER'),
+    friends_count = (select count(*) from followers f join groups g on g.id = f.group_level
+                     where f.publisher = u.id and g.title <> 'FOLLOWER');
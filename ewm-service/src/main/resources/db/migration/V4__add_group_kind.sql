@@ -0,0 +1,17 @@
+alter table groups add column if not exists kind smallint;
+
+update groups set kind = case upper(title) when 'FOLLOWER' then 0 when 'FRIENDS_ALL' then 1 else 2 end;
+
+alter table groups alter column kind set not null;
+
+alter table followers add column if not exists kind smallint;
+
+update followers set kind = (select g.kind from groups g where g.id = followers.group_level);
+
+alter table followers alter column kind set not null;
+
+create index if not exists groups_publisher_kind_idx on groups (publisher, kind);
+
+create index if not exists followers_publisher_kind_idx on followers (publisher, kind);
+
+create index if not exists followers_follower_kind_idx on followers (follower, kind);
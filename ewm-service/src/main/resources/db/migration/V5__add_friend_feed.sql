@@ -0,0 +1,15 @@
+create table if not exists friend_feed (
+    id bigint generated always as identity primary key,
+    owner bigint not null references users on delete cascade,
+    actor bigint not null references users on delete cascade,
+    event bigint not null references events,
+    request bigint references participation_requests on delete cascade,
+    kind smallint not null,
+    created timestamp not null
+);
+
+create index if not exists friend_feed_owner_id_idx on friend_feed (owner, id);
+
+create index if not exists friend_feed_request_idx on friend_feed (request);
+
+create index if not exists friend_feed_actor_owner_idx on friend_feed (actor, owner);
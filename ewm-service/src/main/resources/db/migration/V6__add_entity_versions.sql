@@ -0,0 +1,5 @@
+alter table events add column if not exists version bigint not null default 0;
+
+alter table categories add column if not exists version bigint not null default 0;
+
+alter table compilations add column if not exists version bigint not null default 0;
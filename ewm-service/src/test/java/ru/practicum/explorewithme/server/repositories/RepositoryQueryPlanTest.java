@@ -0,0 +1,340 @@
+package ru.practicum.explorewithme.server.repositories;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.explorewithme.models.event.EventFacet;
+import ru.practicum.explorewithme.models.event.EventSort;
+import ru.practicum.explorewithme.models.event.State;
+import ru.practicum.explorewithme.models.request.RequestStatus;
+import ru.practicum.explorewithme.models.subscription.SubscriptionStatus;
+import ru.practicum.explorewithme.models.subscription.group.FriendshipGroup;
+import ru.practicum.explorewithme.server.models.QEvent;
+import ru.practicum.explorewithme.server.utils.geo.GeoHash;
+import ru.practicum.explorewithme.server.utils.selectioncondition.SearchParam;
+import ru.practicum.explorewithme.server.utils.selectioncondition.SelectionConditionForPublic;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Запросы EventRepository, FollowersRepository и SubscriptionRepository должны обслуживаться индексами.
+ * Тест поднимает встроенный PostgreSQL с миграциями, наполняет таблицы данными в объеме, на котором чтение всей
+ * таблицы уже дороже индекса, вызывает методы репозиториев и для каждого SQL, который при этом отправил Hibernate,
+ * выполняет EXPLAIN с теми же параметрами. Любой Seq Scan в плане - ошибка.
+ * Запускается в профиле query-plan: mvn -B -Pquery-plan -pl ewm-service -am test.
+ */
+@Tag("query-plan")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "stats-server.url=http://localhost:9999",
+        "search.index.enabled=false",
+        "search.suggest.enabled=false"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final int USERS = 10000;
+
+    private static final int CATEGORIES = 500;
+
+    private static final int LOCATIONS = 10000;
+
+    private static final int EVENTS = 100000;
+
+    private static final int REQUESTS = 100000;
+
+    private static final int SUBSCRIPTIONS = 100000;
+
+    private static final List<QueryInfo> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    private static volatile boolean recording;
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private FollowersRepository followersRepository;
+
+    @Autowired
+    private SubscriptionRepository subscriptionRepository;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("insert into users (name, email, created) " +
+                "select 'user ' || i, 'user' || i || '@mail.ru', now() from generate_series(1, ?) i", USERS);
+        jdbcTemplate.update("insert into categories (name) select 'category ' || i from generate_series(1, ?) i",
+                CATEGORIES);
+        List<Object[]> locations = new ArrayList<>();
+        for (int i = 0; i < LOCATIONS; i++) {
+            double lat = 41 + i % 100 * 0.3;
+            double lon = 20 + i / 100 * 1.2;
+            locations.add(new Object[]{lat, lon, GeoHash.encode(lat, lon, GeoHash.PRECISION)});
+        }
+        jdbcTemplate.batchUpdate("insert into locations (lat, lon, geohash) values (?, ?, ?)", locations);
+
+        //события на год вокруг текущей даты, у половины есть место
+        jdbcTemplate.update("insert into events (title, annotation, description, initiator, category, location, " +
+                "created, event_date, paid, partition_limit, moderation, state, number_confirmed) " +
+                "select 'event ' || i, 'annotation ' || i, 'description ' || i, u.id, c.id, l.id, now(), " +
+                "now() + (i % 8760 - 4380) * interval '1 hour', i % 2 = 0, i % 5, true, i % ?, 0 " +
+                "from generate_series(0, ? - 1) i " +
+                "join (" + numbered("users") + ") u on u.n = i % ? " +
+                "join (" + numbered("categories") + ") c on c.n = i % ? " +
+                "left join (" + numbered("locations") + ") l on l.n = i % ?",
+                State.values().length, EVENTS, USERS, CATEGORIES, LOCATIONS * 2);
+        jdbcTemplate.update("insert into participation_requests (created, requestor, event, status) " +
+                "select now(), u.id, e.id, i % ? from generate_series(0, ? - 1) i " +
+                "join (" + numbered("users") + ") u on u.n = i % ? " +
+                "join (" + numbered("events") + ") e on e.n = i * 7 % ?",
+                RequestStatus.values().length, REQUESTS, USERS, EVENTS);
+
+        for (FriendshipGroup group : FriendshipGroup.values()) {
+            jdbcTemplate.update("insert into groups (publisher, title, kind) select id, ?, ? from users",
+                    group.name(), group.ordinal());
+        }
+        //у каждого пользователя 10 подписок на разных авторов
+        jdbcTemplate.update("insert into subscription (friendship_request, publisher, follower, created, updated, " +
+                "status) select i % 2 = 0, p.id, f.id, now(), now(), i % ? from generate_series(0, ? - 1) i " +
+                "join (" + numbered("users") + ") p on p.n = i % ? " +
+                "join (" + numbered("users") + ") f on f.n = (i % ? + i / ? + 1) % ?",
+                SubscriptionStatus.values().length, SUBSCRIPTIONS, USERS, USERS, USERS, USERS);
+        jdbcTemplate.update("insert into followers (group_level, added, publisher, follower, subscription, kind) " +
+                "select g.id, now(), s.publisher, s.follower, s.id, g.kind from subscription s " +
+                "join groups g on g.publisher = s.publisher and g.kind = s.status % ?",
+                FriendshipGroup.values().length);
+        jdbcTemplate.update("insert into request_group (request, group_level) select r.id, g.id " +
+                "from participation_requests r join groups g on g.publisher = r.requestor and g.kind = ?",
+                FriendshipGroup.FRIENDS_ALL.ordinal());
+        jdbcTemplate.execute("analyze");
+    }
+
+    @AfterAll
+    void stop() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        Map<String, Object> event = jdbcTemplate.queryForMap("select id, initiator from events where state = ? " +
+                "and location is not null limit 1", State.PUBLISHED.ordinal());
+        long eventId = (Long) event.get("id");
+        long initiatorId = (Long) event.get("initiator");
+        Map<String, Object> follower = jdbcTemplate.queryForMap("select id, publisher, follower, subscription, " +
+                "group_level from followers where kind <> ? limit 1", FriendshipGroup.FOLLOWER.ordinal());
+        long followerId = (Long) follower.get("id");
+        long publisherId = (Long) follower.get("publisher");
+        long followerUserId = (Long) follower.get("follower");
+        long subscriptionId = (Long) follower.get("subscription");
+        long groupId = ((Number) follower.get("group_level")).longValue();
+        int[] categories = jdbcTemplate.queryForList("select id from categories limit 2", Integer.class).stream()
+                .mapToInt(Integer::intValue).toArray();
+        PageRequest page = PageRequest.of(0, 10);
+        LocalDateTime now = LocalDateTime.now();
+
+        //findAllForIndex не проверяется: это загрузка всего индекса, она читает связанные таблицы целиком
+        Map<String, Runnable> calls = new LinkedHashMap<>();
+        calls.put("EventRepository.findByInitiator_IdAndId",
+                () -> eventRepository.findByInitiator_IdAndId(initiatorId, eventId));
+        calls.put("EventRepository.findWithDescriptionByInitiatorIdAndId",
+                () -> eventRepository.findWithDescriptionByInitiatorIdAndId(initiatorId, eventId));
+        calls.put("EventRepository.findWithDescriptionById", () -> eventRepository.findWithDescriptionById(eventId));
+        calls.put("EventRepository.findAllByInitiator_Id",
+                () -> eventRepository.findAllByInitiator_Id(initiatorId, page));
+        calls.put("EventRepository.findByIdAndState",
+                () -> eventRepository.findByIdAndState(eventId, State.PUBLISHED));
+        calls.put("EventRepository.findVersionByIdAndState",
+                () -> eventRepository.findVersionByIdAndState(eventId, State.PUBLISHED));
+        calls.put("EventRepository.findExistingIds", () -> eventRepository.findExistingIds(List.of(eventId)));
+        calls.put("EventRepository.findForIndexById", () -> eventRepository.findForIndexById(eventId));
+        calls.put("EventRepository.findAllForSearchById",
+                () -> eventRepository.findAllForSearchById(List.of(eventId)));
+        calls.put("EventRepository.addConfirmedRequest", () -> eventRepository.addConfirmedRequest(eventId));
+        calls.put("EventRepository.findEventsWhereParticipant",
+                () -> eventRepository.findEventsWhereParticipant(publisherId, followerUserId,
+                        QEvent.event.state.eq(State.PUBLISHED), page));
+        publicSearches(now, categories).forEach((name, condition) -> {
+            SearchParam param = condition.getSearchParameters(QEvent.event);
+            calls.put("EventRepository.findAll(" + name + ")",
+                    () -> eventRepository.findAll(param.getBooleanExpression(), param.getPageable()));
+            calls.put("EventRepository.countByCategoryAndPaid(" + name + ")",
+                    () -> eventRepository.countByCategoryAndPaid(condition.getFacetExpression(QEvent.event,
+                            Set.of(EventFacet.CATEGORY))));
+        });
+
+        calls.put("FollowersRepository.findByPublisher_IdAndFollower_Id",
+                () -> followersRepository.findByPublisher_IdAndFollower_Id(publisherId, followerUserId));
+        calls.put("FollowersRepository.getFollowerWithStateFriendship",
+                () -> followersRepository.getFollowerWithStateFriendship(publisherId, followerUserId));
+        calls.put("FollowersRepository.findFollowingByUserIdWithStatusNotFollower",
+                () -> followersRepository.findFollowingByUserIdWithStatusNotFollower(followerUserId, page));
+        calls.put("FollowersRepository.findFollowingWithStatusFollower",
+                () -> followersRepository.findFollowingWithStatusFollower(followerUserId, page));
+        calls.put("FollowersRepository.findAllFollowersWithStatusFriend",
+                () -> followersRepository.findAllFollowersWithStatusFriend(publisherId, page));
+        calls.put("FollowersRepository.findFollowersWithGroup",
+                () -> followersRepository.findFollowersWithGroup(publisherId, groupId, page));
+        calls.put("FollowersRepository.findFollowersWithStatusFollower",
+                () -> followersRepository.findFollowersWithStatusFollower(publisherId, page));
+        calls.put("FollowersRepository.findByRequest_Id", () -> followersRepository.findByRequest_Id(subscriptionId));
+        calls.put("FollowersRepository.findByIdAndGroupNotFollower",
+                () -> followersRepository.findByIdAndGroupNotFollower(followerId));
+        calls.put("FollowersRepository.findBySubscriptionIdAndUserId",
+                () -> followersRepository.findBySubscriptionIdAndUserId(subscriptionId, publisherId));
+        calls.put("GroupRepository.findByUser_IdAndKind",
+                () -> groupRepository.findByUser_IdAndKind(publisherId, FriendshipGroup.FRIENDS_ALL));
+
+        calls.put("SubscriptionRepository.findByIdAndPublisher_IdAndStatusIs",
+                () -> subscriptionRepository.findByIdAndPublisher_IdAndStatusIs(subscriptionId, publisherId,
+                        SubscriptionStatus.WAITING));
+        calls.put("SubscriptionRepository.findAllByFollower_Id",
+                () -> subscriptionRepository.findAllByFollower_Id(followerUserId, page));
+        calls.put("SubscriptionRepository.findAllByFollower_IdAndStatus",
+                () -> subscriptionRepository.findAllByFollower_IdAndStatus(followerUserId, SubscriptionStatus.WAITING,
+                        page));
+        calls.put("SubscriptionRepository.findAllByPublisher",
+                () -> subscriptionRepository.findAllByPublisher(publisherId, page));
+        calls.put("SubscriptionRepository.findAllByPublisher_IdAndStatusIs",
+                () -> subscriptionRepository.findAllByPublisher_IdAndStatusIs(publisherId, SubscriptionStatus.WAITING,
+                        page));
+        calls.put("SubscriptionRepository.findSubscriptionByIdAndUserId",
+                () -> subscriptionRepository.findSubscriptionByIdAndUserId(subscriptionId, followerUserId));
+        calls.put("SubscriptionRepository.existsByFollower_IdAndPublisher_IdAndStatusNot",
+                () -> subscriptionRepository.existsByFollower_IdAndPublisher_IdAndStatusNot(followerUserId,
+                        publisherId, SubscriptionStatus.REVOKE));
+
+        List<String> seqScans = new ArrayList<>();
+        calls.forEach((method, call) -> {
+            List<QueryInfo> statements = record(call);
+            assertThat(statements).as(method).isNotEmpty();
+            for (QueryInfo statement : statements) {
+                String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                        explain(connection, statement));
+                if (plan.contains("Seq Scan")) {
+                    seqScans.add(method + "\n" + statement.getQuery() + "\n" + plan);
+                }
+            }
+        });
+        assertThat(seqScans).as("запросы с последовательным чтением таблиц").isEmpty();
+    }
+
+    private static Map<String, SelectionConditionForPublic> publicSearches(LocalDateTime now, int[] categories) {
+        String start = now.plusDays(10).format(FORMATTER);
+        String end = now.plusDays(20).format(FORMATTER);
+        Map<String, SelectionConditionForPublic> searches = new LinkedHashMap<>();
+        searches.put("public search", SelectionConditionForPublic.of(null, null, null, null, null, null, null, null,
+                null, EventSort.EVENT_DATE, 0, 10));
+        searches.put("categories", SelectionConditionForPublic.of(null, categories, true, null, null, true,
+                null, null, null, null, 0, 10));
+        searches.put("date range", SelectionConditionForPublic.of(null, null, null, start, end, null, null, null,
+                null, EventSort.EVENT_DATE, 0, 10));
+        searches.put("nearby", SelectionConditionForPublic.of(null, null, null, null, null, null, 55.7, 37.6, 5.0,
+                null, 0, 10));
+        return searches;
+    }
+
+    private static List<QueryInfo> record(Runnable call) {
+        STATEMENTS.clear();
+        recording = true;
+        try {
+            call.run();
+        } finally {
+            recording = false;
+        }
+        return new ArrayList<>(STATEMENTS);
+    }
+
+    /**
+     * План запроса с параметрами первого набора: они повторяются тем же методом setXxx, что вызвал Hibernate.
+     */
+    private static String explain(Connection connection, QueryInfo query) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("explain " + query.getQuery())) {
+            if (!query.getParametersList().isEmpty()) {
+                for (ParameterSetOperation operation : query.getParametersList().get(0)) {
+                    operation.getMethod().invoke(statement, operation.getArgs());
+                }
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String numbered(String table) {
+        return "select id, row_number() over (order by id) - 1 n from " + table;
+    }
+
+    @TestConfiguration
+    static class RecordingConfig {
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource)) {
+                        return bean;
+                    }
+                    return ProxyDataSourceBuilder.create((DataSource) bean)
+                            .afterQuery((execution, queries) -> {
+                                if (recording) {
+                                    STATEMENTS.addAll(queries);
+                                }
+                            })
+                            .build();
+                }
+            };
+        }
+    }
+}
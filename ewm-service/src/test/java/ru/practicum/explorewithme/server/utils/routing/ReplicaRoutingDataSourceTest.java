@@ -0,0 +1,119 @@
+package ru.practicum.explorewithme.server.utils.routing;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Две встроенные базы H2: в каждой таблица node с ее именем, по ней видно, куда ушел запрос.
+ */
+class ReplicaRoutingDataSourceTest {
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate writeTemplate;
+
+    private TransactionTemplate readOnlyTemplate;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(database("primary"));
+        replica = new JdbcTemplate(database("replica"));
+        route("select 0");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clearClient();
+        primary.execute("drop all objects");
+        replica.execute("drop all objects");
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        assertThat(readNode()).isEqualTo("replica");
+    }
+
+    @Test
+    void writeGoesToPrimary() {
+        write();
+
+        assertThat(primary.queryForObject("select count(*) from writes", Integer.class)).isEqualTo(1);
+        assertThat(replica.queryForObject("select count(*) from writes", Integer.class)).isZero();
+    }
+
+    @Test
+    void readAfterOwnWriteGoesToPrimary() {
+        ReadYourWrites.setClient("user:1");
+        write();
+
+        assertThat(readNode()).isEqualTo("primary");
+
+        ReadYourWrites.setClient("user:2");
+        assertThat(readNode()).isEqualTo("replica");
+    }
+
+    @Test
+    void readOnPrimaryGoesToPrimary() {
+        assertThat(ReplicaRoutingDataSource.onPrimary(this::readNode)).isEqualTo("primary");
+        assertThat(readNode()).isEqualTo("replica");
+    }
+
+    @Test
+    void laggingReplicaIsSkipped() {
+        route("select 10");
+
+        assertThat(readNode()).isEqualTo("primary");
+    }
+
+    /**
+     * Маршрутизация с отставанием реплики, которое возвращает lagQuery; допустимое отставание 5 секунд.
+     */
+    private void route(String lagQuery) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary.getDataSource(),
+                Map.of("replica-0", replica.getDataSource()), new ReadYourWrites(Duration.ofMinutes(1)),
+                Duration.ofSeconds(5), Duration.ofSeconds(1), lagQuery);
+        routing.afterPropertiesSet();
+        routing.checkLag();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTemplate.setReadOnly(true);
+    }
+
+    private String readNode() {
+        return readOnlyTemplate.execute(status -> jdbcTemplate.queryForObject("select name from node",
+                String.class));
+    }
+
+    private void write() {
+        writeTemplate.executeWithoutResult(status -> jdbcTemplate.update("insert into writes values (1)"));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(20))");
+        jdbcTemplate.update("insert into node values (?)", name);
+        jdbcTemplate.execute("create table writes (id int)");
+        return dataSource;
+    }
+}
@@ -0,0 +1,203 @@
+package ru.practicum.explorewithme.server.utils.search;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.explorewithme.models.event.EventFacet;
+import ru.practicum.explorewithme.models.event.EventSort;
+import ru.practicum.explorewithme.models.event.State;
+import ru.practicum.explorewithme.server.models.Category;
+import ru.practicum.explorewithme.server.models.Event;
+import ru.practicum.explorewithme.server.models.QEvent;
+import ru.practicum.explorewithme.server.models.User;
+import ru.practicum.explorewithme.server.repositories.CategoryRepository;
+import ru.practicum.explorewithme.server.repositories.EventRepository;
+import ru.practicum.explorewithme.server.repositories.UserRepository;
+import ru.practicum.explorewithme.server.utils.selectioncondition.SearchParam;
+import ru.practicum.explorewithme.server.utils.selectioncondition.SelectionConditionForPublic;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Индекс и запрос в базу, которым поиск отвечает без индекса, должны возвращать одни и те же события.
+ * Плановые обновления индекса отодвинуты, тест вызывает их сам.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:upcoming-index;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "stats-server.url=http://localhost:9999",
+        "search.suggest.enabled=false",
+        "search.index.refresh-interval=PT1H",
+        "search.index.update-delay=PT1H"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UpcomingEventIndexTest {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private UpcomingEventIndex index;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<Category> categories = new ArrayList<>();
+
+    private LocalDateTime now;
+
+    @BeforeAll
+    void seed() {
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        User initiator = userRepository.save(new User("initiator", "initiator@mail.ru"));
+        for (int i = 0; i < 3; i++) {
+            categories.add(categoryRepository.save(new Category("category " + i)));
+        }
+        //прошедшие, опубликованные и неопубликованные, платные и нет, с местами и без
+        for (int i = -10; i < 50; i++) {
+            Event event = new Event();
+            event.setTitle("event " + i);
+            event.setAnnotation("annotation " + i);
+            event.setInitiator(initiator);
+            event.setCategory(categories.get(Math.floorMod(i, 3)));
+            event.setCreated(now.minusDays(1));
+            event.setEventDate(now.plusHours(i));
+            event.setPaid(i % 2 == 0);
+            event.setParticipantLimit(2);
+            event.setNumberConfirmed(Math.floorMod(i, 4));
+            event.setState(i % 7 == 0 ? State.PENDING : State.PUBLISHED);
+            eventRepository.save(event);
+        }
+        index.rebuild();
+    }
+
+    @Test
+    void searchMatchesDatabase() {
+        conditions().forEach(this::assertSameAsDatabase);
+    }
+
+    @Test
+    void facetsMatchDatabase() {
+        conditions().forEach(condition -> {
+            assertThat(index.countFacet(condition, EventFacet.CATEGORY)).contains(
+                    categoryCountsInDatabase(condition));
+            assertThat(index.countFacet(condition, EventFacet.PAID).orElseThrow())
+                    .containsEntry("true", paidCountInDatabase(condition, true))
+                    .containsEntry("false", paidCountInDatabase(condition, false));
+        });
+    }
+
+    @Test
+    void changesAreAppliedInOneBatch() {
+        List<Event> upcoming = eventRepository.findAllForIndex(State.PUBLISHED, now.plusHours(1));
+        Event unpublished = upcoming.get(0);
+        unpublished.setState(State.CANCELED);
+        eventRepository.save(unpublished);
+        Event moved = upcoming.get(1);
+        moved.setCategory(categories.get((categories.indexOf(moved.getCategory()) + 1) % categories.size()));
+        moved.setEventDate(now.plusDays(30));
+        eventRepository.save(moved);
+        Event published = eventRepository.findAll().stream()
+                .filter(event -> event.getState() == State.PENDING && event.getEventDate().isAfter(now))
+                .findFirst().orElseThrow();
+        published.setState(State.PUBLISHED);
+        eventRepository.save(published);
+
+        //коммит только запоминает id, индекс меняется в applyChanges
+        assertThat(index.find(List.of(unpublished.getId()))).containsKey(unpublished.getId());
+        assertThat(index.find(List.of(published.getId()))).doesNotContainKey(published.getId());
+
+        index.applyChanges();
+
+        assertThat(index.find(List.of(unpublished.getId()))).doesNotContainKey(unpublished.getId());
+        assertThat(index.find(List.of(published.getId()))).containsKey(published.getId());
+        conditions().forEach(this::assertSameAsDatabase);
+    }
+
+    private void assertSameAsDatabase(SelectionConditionForPublic condition) {
+        List<Long> fromIndex = index.search(condition).orElseThrow().stream().map(Event::getId)
+                .collect(Collectors.toList());
+        SearchParam param = condition.getSearchParameters(QEvent.event);
+        List<Long> fromDatabase = eventRepository.findAll(param.getBooleanExpression(), param.getPageable())
+                .map(Event::getId).toList();
+        if (condition.getSort() == EventSort.EVENT_DATE) {
+            assertThat(fromIndex).as(describe(condition)).containsExactlyElementsOf(fromDatabase);
+        } else {
+            //без сортировки порядок базы не определен; страница вмещает все события
+            assertThat(fromIndex).as(describe(condition)).containsExactlyInAnyOrderElementsOf(fromDatabase);
+        }
+    }
+
+    private Map<String, Long> categoryCountsInDatabase(SelectionConditionForPublic condition) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        eventsInDatabase(condition, EventFacet.CATEGORY).stream()
+                .collect(Collectors.groupingBy(event -> event.getCategory().getId(), TreeMap::new,
+                        Collectors.counting()))
+                .forEach((category, count) -> counts.put(category.toString(), count));
+        return counts;
+    }
+
+    private long paidCountInDatabase(SelectionConditionForPublic condition, boolean paid) {
+        return eventsInDatabase(condition, EventFacet.PAID).stream().filter(event -> event.isPaid() == paid).count();
+    }
+
+    private List<Event> eventsInDatabase(SelectionConditionForPublic condition, EventFacet facet) {
+        List<Event> events = new ArrayList<>();
+        eventRepository.findAll(condition.getFacetExpression(QEvent.event, Set.of(facet))).forEach(events::add);
+        return events;
+    }
+
+    private List<SelectionConditionForPublic> conditions() {
+        int first = (int) categories.get(0).getId();
+        int second = (int) categories.get(1).getId();
+        String start = now.plusHours(5).format(FORMATTER);
+        String end = now.plusHours(30).format(FORMATTER);
+        List<SelectionConditionForPublic> conditions = new ArrayList<>(List.of(
+                condition(null, null, null, null, null, null, 0, 1000),
+                condition(new int[]{first}, null, null, null, null, null, 0, 1000),
+                condition(new int[]{first, second}, true, null, null, null, null, 0, 1000),
+                condition(null, false, null, null, true, null, 0, 1000),
+                condition(null, null, start, null, null, null, 0, 1000),
+                condition(null, null, start, end, null, null, 0, 1000),
+                condition(new int[]{second}, true, start, end, true, null, 0, 1000)));
+        for (int from = 0; from < 30; from += 7) {
+            conditions.add(condition(null, null, null, null, null, EventSort.EVENT_DATE, from, 7));
+            conditions.add(condition(new int[]{first}, null, start, end, null, EventSort.EVENT_DATE, from, 7));
+        }
+        return conditions;
+    }
+
+    private static SelectionConditionForPublic condition(int[] categories, Boolean paid, String rangeStart,
+                                                         String rangeEnd, Boolean available, EventSort sort,
+                                                         int from, int size) {
+        return SelectionConditionForPublic.of(null, categories, paid, rangeStart, rangeEnd, available, null, null,
+                null, sort, from, size);
+    }
+
+    private static String describe(SelectionConditionForPublic condition) {
+        return String.format("categories=%s paid=%s range=%s..%s available=%s sort=%s from=%d",
+                Arrays.toString(condition.getCategories()), condition.getPaid(), condition.getRangeStart(),
+                condition.getRangeEnd(), condition.getAvailable(), condition.getSort(), condition.getFrom());
+    }
+}
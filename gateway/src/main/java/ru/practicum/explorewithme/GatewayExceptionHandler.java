@@ -1,27 +1,21 @@
 package ru.practicum.explorewithme;
 
 import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.MethodArgumentNotValidException;
-import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
 import ru.practicum.explorewithme.models.ApiError;
 
 @RestControllerAdvice
 public class GatewayExceptionHandler {
 
-    @ExceptionHandler({MethodArgumentNotValidException.class})
+    /**
+     * Невалидное тело, отсутствующий или нечитаемый параметр запроса.
+     */
+    @ExceptionHandler({ServerWebInputException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiError validationException(MethodArgumentNotValidException e) {
-        return new ApiError(e.getStackTrace(), e.getMessage(), "The request was formed incorrectly",
-                HttpStatus.BAD_REQUEST);
-
-    }
-
-    @ExceptionHandler({MissingServletRequestParameterException.class})
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiError validationException(MissingServletRequestParameterException e) {
+    public ApiError validationException(ServerWebInputException e) {
         return new ApiError(e.getStackTrace(), e.getMessage(), "The request was formed incorrectly",
                 HttpStatus.BAD_REQUEST);
 
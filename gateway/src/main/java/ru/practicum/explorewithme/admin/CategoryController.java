@@ -2,9 +2,12 @@ package ru.practicum.explorewithme.admin;
 
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.explorewithme.clients.server.admin.CategoryClient;
 import ru.practicum.explorewithme.models.category.CategoryDto;
 import ru.practicum.explorewithme.models.category.NewCategoryDto;
@@ -20,17 +23,17 @@ public class CategoryController {
     private final CategoryClient client;
 
     @PatchMapping
-    public ResponseEntity<Object> updateCategory(@RequestBody @Valid CategoryDto categoryDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateCategory(@RequestBody @Valid CategoryDto categoryDto) {
         return client.updateCategory(categoryDto);
     }
 
     @PostMapping
-    public ResponseEntity<Object> addCategory(@RequestBody @Valid NewCategoryDto categoryDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addCategory(@RequestBody @Valid NewCategoryDto categoryDto) {
         return client.addCategory(categoryDto);
     }
 
     @DeleteMapping("/{catId}")
-    public ResponseEntity<Object> deleteCategory(@PathVariable(name = "catId") Long catId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteCategory(@PathVariable(name = "catId") Long catId) {
         return client.deleteCategory(catId);
     }
 }
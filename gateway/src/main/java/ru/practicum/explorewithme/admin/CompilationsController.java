@@ -2,9 +2,12 @@ package ru.practicum.explorewithme.admin;
 
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.explorewithme.clients.server.admin.CompilationsClient;
 import ru.practicum.explorewithme.models.compilation.NewCompilationDto;
 
@@ -18,34 +21,46 @@ public class CompilationsController {
     private final CompilationsClient client;
 
     @PostMapping
-    public ResponseEntity<Object> addCompilation(@RequestBody @Valid NewCompilationDto compilationDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addCompilation(@RequestBody @Valid NewCompilationDto compilationDto) {
         return client.addCompilation(compilationDto);
     }
 
     @DeleteMapping("/{compId}")
-    public ResponseEntity<Object> deleteCompilation(@PathVariable(name = "compId") Long compId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteCompilation(@PathVariable(name = "compId") Long compId) {
         return client.deleteCompilation(compId);
     }
 
     @DeleteMapping("/{compId}/events/{eventId}")
-    public ResponseEntity<Object> deleteEventFromCompilation(@PathVariable(name = "compId") Long compId,
-                                                             @PathVariable(name = "eventId") Long eventId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteEventFromCompilation(@PathVariable(name = "compId") Long compId,
+                                                                             @PathVariable(name = "eventId") Long eventId) {
         return client.deleteEventFromCompilation(compId, eventId);
     }
 
     @PatchMapping("/{compId}/events/{eventId}")
-    public ResponseEntity<Object> addEventToCompilation(@PathVariable(name = "compId") Long compId,
-                                                        @PathVariable(name = "eventId") Long eventId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addEventToCompilation(@PathVariable(name = "compId") Long compId,
+                                                                        @PathVariable(name = "eventId") Long eventId) {
         return client.addEventFromCompilation(compId, eventId);
     }
 
+    @PatchMapping("/{compId}/events")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addEventsToCompilation(@PathVariable(name = "compId") Long compId,
+                                                                         @RequestParam(name = "ids") long[] eventIds) {
+        return client.addEventsToCompilation(compId, eventIds);
+    }
+
+    @DeleteMapping("/{compId}/events")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteEventsFromCompilation(@PathVariable(name = "compId") Long compId,
+                                                                              @RequestParam(name = "ids") long[] eventIds) {
+        return client.deleteEventsFromCompilation(compId, eventIds);
+    }
+
     @DeleteMapping("/{compId}/pin")
-    public ResponseEntity<Object> unpinCompilation(@PathVariable(name = "compId") Long compId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> unpinCompilation(@PathVariable(name = "compId") Long compId) {
         return client.unpinCompilation(compId);
     }
 
     @PatchMapping("/{compId}/pin")
-    public ResponseEntity<Object> pinCompilation(@PathVariable(name = "compId") Long compId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> pinCompilation(@PathVariable(name = "compId") Long compId) {
         return client.pinCompilation(compId);
     }
 }
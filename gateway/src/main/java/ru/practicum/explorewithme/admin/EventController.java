@@ -2,9 +2,12 @@ package ru.practicum.explorewithme.admin;
 
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.explorewithme.clients.server.admin.EventClient;
 import ru.practicum.explorewithme.models.event.AdminUpdateEventRequest;
 import ru.practicum.explorewithme.models.event.State;
@@ -23,13 +26,13 @@ public class EventController {
     private final EventClient client;
 
     @GetMapping
-    public ResponseEntity<Object> getEvents(@RequestParam(name = "users", required = false) int[] users,
-                                            @RequestParam(name = "states", required = false) State[] states,
-                                            @RequestParam(name = "categories", required = false) int[] categories,
-                                            @RequestParam(name = "rangeStart", required = false) String rangeStart,
-                                            @RequestParam(name = "rangeEnd", required = false) String rangeEnd,
-                                            @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                            @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getEvents(@RequestParam(name = "users", required = false) int[] users,
+                                                            @RequestParam(name = "states", required = false) State[] states,
+                                                            @RequestParam(name = "categories", required = false) int[] categories,
+                                                            @RequestParam(name = "rangeStart", required = false) String rangeStart,
+                                                            @RequestParam(name = "rangeEnd", required = false) String rangeEnd,
+                                                            @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                            @RequestParam(name = "size", defaultValue = "10") Integer size) {
         dateValidation(rangeStart, rangeEnd);
 
         Map<String, Object> param = new HashMap<>();
@@ -45,18 +48,18 @@ public class EventController {
     }
 
     @PutMapping("/{eventId}")
-    public ResponseEntity<Object> updateEvent(@PathVariable(name = "eventId") long eventId,
-                                              @RequestBody AdminUpdateEventRequest updateEventRequest) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateEvent(@PathVariable(name = "eventId") long eventId,
+                                                              @RequestBody AdminUpdateEventRequest updateEventRequest) {
         return client.updateEvent(eventId, updateEventRequest);
     }
 
     @PatchMapping("/{eventId}/publish")
-    public ResponseEntity<Object> publishEvent(@PathVariable(name = "eventId") long eventId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> publishEvent(@PathVariable(name = "eventId") long eventId) {
         return client.publishEvent(eventId);
     }
 
     @PatchMapping("/{eventId}/reject")
-    public ResponseEntity<Object> rejectEvent(@PathVariable(name = "eventId") long eventId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> rejectEvent(@PathVariable(name = "eventId") long eventId) {
         return client.rejectEvent(eventId);
     }
 }
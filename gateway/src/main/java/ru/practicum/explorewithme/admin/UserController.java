@@ -2,10 +2,13 @@ package ru.practicum.explorewithme.admin;
 
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.explorewithme.clients.server.admin.UserClient;
 import ru.practicum.explorewithme.models.user.NewUserRequest;
 
@@ -22,19 +25,19 @@ public class UserController {
     private final UserClient client;
 
     @GetMapping("/users")
-    public ResponseEntity<Object> getUsers(@RequestParam(name = "ids", required = false) long[] ids,
-                                           @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-                                           @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUsers(@RequestParam(name = "ids", required = false) long[] ids,
+                                                           @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                           @RequestParam(name = "size", defaultValue = "10") @Positive int size) {
         return client.getUsers(ids, from, size);
     }
 
     @PostMapping("/users")
-    public ResponseEntity<Object> addUsers(@RequestBody @Valid NewUserRequest newUserRequest) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addUsers(@RequestBody @Valid NewUserRequest newUserRequest) {
         return client.addUser(newUserRequest);
     }
 
     @DeleteMapping("/users/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable(name = "userId") @Positive Long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteUser(@PathVariable(name = "userId") @Positive Long userId) {
         return client.deleteUser(userId);
     }
 }
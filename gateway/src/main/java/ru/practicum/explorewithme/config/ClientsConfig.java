@@ -1,13 +1,19 @@
 package ru.practicum.explorewithme.config;
 
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 import ru.practicum.explorewithme.clients.server.priv.PrivateClient;
 import ru.practicum.explorewithme.clients.server.PublicClient;
 import ru.practicum.explorewithme.clients.server.admin.CategoryClient;
@@ -15,64 +21,111 @@ import ru.practicum.explorewithme.clients.server.admin.CompilationsClient;
 import ru.practicum.explorewithme.clients.server.admin.EventClient;
 import ru.practicum.explorewithme.clients.server.admin.UserClient;
 import ru.practicum.explorewithme.clients.server.priv.SubscriptionClient;
+import ru.practicum.explorewithme.clients.stat.StatClient;
+
+import java.time.Duration;
 
 @Configuration
 public class ClientsConfig {
     @Value("${main-server.url}")
     private String serverUrl;
 
-    private RestTemplateBuilder builder;
+    @Value("${stats-server.url}")
+    private String statsUrl;
+
+    @Value("${stats-server.connect-timeout}")
+    private Duration statsConnectTimeout;
+
+    @Value("${stats-server.read-timeout}")
+    private Duration statsReadTimeout;
+
+    private final WebClient.Builder builder;
+
+    /**
+     * Общий пул соединений клиентов ewm-service. Запросы сверх max-connections ждут свободного соединения
+     * в очереди из pending-acquire-max-count мест и не больше pending-acquire-timeout, а не открывают новые.
+     */
+    private final ReactorClientHttpConnector serverConnector;
 
     @Autowired
-    public ClientsConfig(RestTemplateBuilder builder) {
+    public ClientsConfig(WebClient.Builder builder,
+                         @Value("${main-server.max-connections}") int serverMaxConnections,
+                         @Value("${main-server.pending-acquire-max-count}") int pendingAcquireMaxCount,
+                         @Value("${main-server.pending-acquire-timeout}") Duration pendingAcquireTimeout,
+                         @Value("${main-server.connect-timeout}") Duration connectTimeout) {
         this.builder = builder;
+        ConnectionProvider pool = ConnectionProvider.builder("ewm-service")
+                .maxConnections(serverMaxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .build();
+        this.serverConnector = new ReactorClientHttpConnector(HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis()));
     }
 
     @Bean
     public UserClient makeUserClient() {
         String prefix = "/admin/users";
-        return new UserClient(makeRestTemplate(prefix));
+        return new UserClient(makeWebClient(prefix));
     }
 
     @Bean
     public CategoryClient makeCategoryClient() {
         String prefix = "/admin/categories";
-        return new CategoryClient(makeRestTemplate(prefix));
+        return new CategoryClient(makeWebClient(prefix));
     }
 
     @Bean
     public CompilationsClient makeCompilationsClient() {
         String prefix = "/admin/compilations";
-        return new CompilationsClient(makeRestTemplate(prefix));
+        return new CompilationsClient(makeWebClient(prefix));
     }
 
     @Bean
     public EventClient makeEventClient() {
         String prefix = "/admin/events";
-        return new EventClient(makeRestTemplate(prefix));
+        return new EventClient(makeWebClient(prefix));
     }
 
     @Bean
     public PrivateClient makePrivateClient() {
         String prefix = "/users";
-        return new PrivateClient(makeRestTemplate(prefix));
+        return new PrivateClient(makeWebClient(prefix));
     }
 
     @Bean
     public PublicClient makePublicClient() {
-        return new PublicClient(makeRestTemplate(""));
+        return new PublicClient(makeWebClient(""));
     }
 
     @Bean
     public SubscriptionClient makeSubscriptionClient() {
         String prefix = "/users";
-        return new SubscriptionClient(makeRestTemplate(prefix));
+        return new SubscriptionClient(makeWebClient(prefix));
+    }
+
+    /**
+     * Просмотры отправляются из потока планировщика HitRecorder, поэтому блокирующий клиент здесь допустим.
+     * Таймауты обязательны: зависший stats-server иначе навсегда остановит отправку просмотров.
+     * В реактивном приложении Spring Boot не создает RestTemplateBuilder, тогда он создается здесь.
+     */
+    @Bean
+    public StatClient makeStatsClient(ObjectProvider<RestTemplateBuilder> restTemplateBuilder) {
+        RestTemplate template = restTemplateBuilder.getIfAvailable(RestTemplateBuilder::new)
+                .uriTemplateHandler(new DefaultUriBuilderFactory(statsUrl))  //фабрика для построения URI
+                .requestFactory(HttpComponentsClientHttpRequestFactory.class)
+                .setConnectTimeout(statsConnectTimeout)
+                .setReadTimeout(statsReadTimeout)
+                .build();
+        return new StatClient(template);
     }
 
-    private RestTemplate makeRestTemplate(String prefix) {
-        return builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + prefix))  //фабрика для построения URI
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)  //фабрика для создания HTTPRequest
+    private WebClient makeWebClient(String prefix) {
+        return builder.clone()
+                .uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + prefix))  //фабрика для построения URI
+                .clientConnector(serverConnector)
+                .filter(ForwardedForFilter.propagate())
+                .filter(ConditionalRequestFilter.propagate())
                 .build();
     }
 }
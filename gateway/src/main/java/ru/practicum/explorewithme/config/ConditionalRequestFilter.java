@@ -0,0 +1,34 @@
+package ru.practicum.explorewithme.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Передает в ewm-service If-None-Match клиента, чтобы тот мог ответить 304 по версии сущности.
+ * Ответ 304 и ETag возвращаются клиенту как есть.
+ */
+@Component
+public class ConditionalRequestFilter implements WebFilter {
+    private static final String CONTEXT_KEY = ConditionalRequestFilter.class.getName();
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String ifNoneMatch = exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange).contextWrite(context -> context.put(CONTEXT_KEY, ifNoneMatch));
+    }
+
+    public static ExchangeFilterFunction propagate() {
+        return (request, next) -> Mono.deferContextual(context -> next.exchange(context.hasKey(CONTEXT_KEY)
+                ? ClientRequest.from(request).header(HttpHeaders.IF_NONE_MATCH, context.<String>get(CONTEXT_KEY)).build()
+                : request));
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.explorewithme.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Определяет адрес клиента и передает его в ewm-service в X-Forwarded-For. Заголовку клиента верим, только если
+ * соединение пришло от прокси из gateway.trusted-proxies: тогда клиент - самый правый адрес цепочки, который
+ * не является доверенным прокси. Иначе клиент - адрес соединения, а присланный заголовок отбрасывается.
+ * В ewm-service уходит цепочка от клиента до адреса соединения включительно. Запросы к ewm-service выполняются
+ * не в потоке входящего запроса, поэтому цепочка кладется в контекст Reactor и читается оттуда фильтром WebClient.
+ */
+@Component
+public class ForwardedForFilter implements WebFilter {
+    public static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private static final String CONTEXT_KEY = ForwardedForFilter.class.getName();
+
+    private static final String CLIENT_IP = ForwardedForFilter.class.getName() + ".clientIp";
+
+    private final Set<String> trustedProxies;
+
+    public ForwardedForFilter(@Value("${gateway.trusted-proxies}") String trustedProxies) {
+        this.trustedProxies = Arrays.stream(trustedProxies.split(",")).map(String::trim)
+                .filter(proxy -> !proxy.isEmpty()).map(ForwardedForFilter::hostAddress).collect(Collectors.toSet());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Optional<String> peer = Optional.ofNullable(exchange.getRequest().getRemoteAddress())
+                .map(InetSocketAddress::getAddress)
+                .map(InetAddress::getHostAddress);
+        if (peer.isEmpty()) {
+            return chain.filter(exchange);
+        }
+        List<String> addresses = new ArrayList<>();
+        String header = exchange.getRequest().getHeaders().getFirst(X_FORWARDED_FOR);
+        if (header != null && trustedProxies.contains(peer.get())) {
+            Arrays.stream(header.split(",")).map(String::trim).filter(address -> !address.isEmpty())
+                    .forEach(addresses::add);
+        }
+        addresses.add(peer.get());
+        int client = addresses.size() - 1;
+        while (client > 0 && trustedProxies.contains(addresses.get(client))) {
+            client--;
+        }
+        exchange.getAttributes().put(CLIENT_IP, addresses.get(client));
+        String forwardedFor = String.join(", ", addresses.subList(client, addresses.size()));
+        return chain.filter(exchange).contextWrite(context -> context.put(CONTEXT_KEY, forwardedFor));
+    }
+
+    public static ExchangeFilterFunction propagate() {
+        return (request, next) -> Mono.deferContextual(context -> next.exchange(context.hasKey(CONTEXT_KEY)
+                ? ClientRequest.from(request).header(X_FORWARDED_FOR, context.<String>get(CONTEXT_KEY)).build()
+                : request));
+    }
+
+    /**
+     * Адрес клиента или пустой Optional, если Netty не знает адреса соединения.
+     */
+    public static Optional<String> clientIp(ServerWebExchange exchange) {
+        return Optional.ofNullable(exchange.getAttribute(CLIENT_IP));
+    }
+
+    /**
+     * Адрес в той же записи, что у InetAddress.getHostAddress; имена разрешаются один раз при старте.
+     */
+    private static String hostAddress(String proxy) {
+        try {
+            return InetAddress.getByName(proxy).getHostAddress();
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Неизвестный адрес доверенного прокси: " + proxy, e);
+        }
+    }
+}
@@ -2,9 +2,12 @@ package ru.practicum.explorewithme.priv;
 
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.explorewithme.clients.server.priv.PrivateClient;
 import ru.practicum.explorewithme.exceptions.UnknownEnumElementException;
 import ru.practicum.explorewithme.models.event.EventState;
@@ -29,96 +32,96 @@ public class PrivateController {
     private final PrivateClient client;
 
     @GetMapping("/{userId}/events")
-    public ResponseEntity<Object> getEventsByOwnerId(@PathVariable(name = "userId") Long userId,
-                                                     @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-                                                     @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getEventsByOwnerId(@PathVariable(name = "userId") Long userId,
+                                                                     @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                                     @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
         return client.getEventsByOwnerId(userId, from, size);
     }
 
     @PatchMapping("/{userId}/events")
-    public ResponseEntity<Object> updateEvent(@PathVariable(name = "userId") @Positive Long userId,
-                                              @RequestBody @Valid UpdateEventRequest request) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateEvent(@PathVariable(name = "userId") @Positive Long userId,
+                                                              @RequestBody @Valid UpdateEventRequest request) {
         return client.updateEvent(userId, request);
     }
 
     @PostMapping("/{userId}/events")
-    public ResponseEntity<Object> addEvent(@PathVariable(name = "userId") @Positive Long userId,
-                                           @RequestBody @Valid NewEventDto newEventDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addEvent(@PathVariable(name = "userId") @Positive Long userId,
+                                                           @RequestBody @Valid NewEventDto newEventDto) {
         return client.addEvent(userId, newEventDto);
     }
 
     @GetMapping("/{userId}/events/{eventId}")
-    public ResponseEntity<Object> getEventByOwnerIdAndEventId(@PathVariable(name = "userId") @Positive Long userId,
-                                                              @PathVariable(name = "eventId") @Positive Long eventId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getEventByOwnerIdAndEventId(@PathVariable(name = "userId") @Positive Long userId,
+                                                                              @PathVariable(name = "eventId") @Positive Long eventId) {
         return client.getEventByOwnerIdAndEventId(userId, eventId);
     }
 
     @PatchMapping("/{userId}/events/{eventId}")
-    public ResponseEntity<Object> cancelEventByOwner(@PathVariable(name = "userId") @Positive Long userId,
-                                                     @PathVariable(name = "eventId") @Positive Long eventId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> cancelEventByOwner(@PathVariable(name = "userId") @Positive Long userId,
+                                                                     @PathVariable(name = "eventId") @Positive Long eventId) {
         return client.cancelEvent(userId, eventId);
     }
 
     @GetMapping("/{userId}/events/{eventId}/requests")
-    public ResponseEntity<Object> getEventRequests(@PathVariable(name = "userId") @Positive Long userId,
-                                                   @PathVariable(name = "eventId") @Positive Long eventId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getEventRequests(@PathVariable(name = "userId") @Positive Long userId,
+                                                                   @PathVariable(name = "eventId") @Positive Long eventId) {
         return client.getEventRequests(userId, eventId);
     }
 
     @PatchMapping("/{userId}/events/{eventId}/requests/{reqId}/confirm")
-    public ResponseEntity<Object> confirmRequestForEvent(@PathVariable(name = "userId") @Positive Long userId,
-                                                         @PathVariable(name = "eventId") @Positive Long eventId,
-                                                         @PathVariable(name = "reqId") @Positive Long reqId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> confirmRequestForEvent(@PathVariable(name = "userId") @Positive Long userId,
+                                                                         @PathVariable(name = "eventId") @Positive Long eventId,
+                                                                         @PathVariable(name = "reqId") @Positive Long reqId) {
         return client.confirmRequestForEvent(userId, eventId, reqId);
     }
 
     @PatchMapping("/{userId}/events/{eventId}/requests/{reqId}/reject")
-    public ResponseEntity<Object> rejectRequestForEvent(@PathVariable(name = "userId") @Positive Long userId,
-                                                        @PathVariable(name = "eventId") @Positive Long eventId,
-                                                        @PathVariable(name = "reqId") @Positive Long reqId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> rejectRequestForEvent(@PathVariable(name = "userId") @Positive Long userId,
+                                                                        @PathVariable(name = "eventId") @Positive Long eventId,
+                                                                        @PathVariable(name = "reqId") @Positive Long reqId) {
         return client.rejectRequestForEvent(userId, eventId, reqId);
     }
 
     @GetMapping("/{userId}/requests")
-    public ResponseEntity<Object> getEventRequestsByUser(@PathVariable(name = "userId") Long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getEventRequestsByUser(@PathVariable(name = "userId") Long userId) {
         return client.getEventRequestsByUser(userId);
     }
 
     @PostMapping("/{userId}/requests")
-    public ResponseEntity<Object> addNewRequestByUser(@PathVariable(name = "userId") Long userId,
-                                                      @RequestParam(name = "eventId") @NotNull long eventId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addNewRequestByUser(@PathVariable(name = "userId") Long userId,
+                                                                      @RequestParam(name = "eventId") @NotNull long eventId) {
         return client.addNewRequestByUser(userId, eventId);
     }
 
     @PatchMapping("/{userId}/requests/{requestId}/cancel")
-    public ResponseEntity<Object> cancelUserRequest(@PathVariable(name = "userId") Long userId,
-                                                    @PathVariable(name = "requestId") Long requestId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> cancelUserRequest(@PathVariable(name = "userId") Long userId,
+                                                                    @PathVariable(name = "requestId") Long requestId) {
         return client.cancelUserRequest(userId, requestId);
     }
 
     @PatchMapping("/{userId}/requests/{requestId}")
-    public ResponseEntity<Object> addGroupToRequest(@PathVariable(name = "userId") @Positive Long userId,
-                                                    @PathVariable(name = "requestId") @Positive Long requestId,
-                                                    @RequestParam(name = "group") Long group) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addGroupToRequest(@PathVariable(name = "userId") @Positive Long userId,
+                                                                    @PathVariable(name = "requestId") @Positive Long requestId,
+                                                                    @RequestParam(name = "group") Long group) {
         return client.addGroupToRequest(userId, requestId, group);
     }
 
     @DeleteMapping("/{userId}/requests/{requestId}")
-    public ResponseEntity<Object> deleteGroupFromRequest(@PathVariable(name = "userId") @Positive Long userId,
-                                                         @PathVariable(name = "requestId") @Positive Long requestId,
-                                                         @RequestParam(name = "group") Long group) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteGroupFromRequest(@PathVariable(name = "userId") @Positive Long userId,
+                                                                         @PathVariable(name = "requestId") @Positive Long requestId,
+                                                                         @RequestParam(name = "group") Long group) {
         return client.deleteGroupFromRequest(userId, requestId, group);
     }
 
     @GetMapping("/{userId}/events/participant")
-    public ResponseEntity<Object> getEventsWhereParticipant(@RequestHeader("X-EWM-User-Id") long followerId,
-                                                            @PathVariable(name = "userId") Long userId,
-                                                            @RequestParam(name = "state") String stateString,
-                                                            @RequestParam(name = "rangeStart", required = false) String start,
-                                                            @RequestParam(name = "rangeEnd", required = false) String end,
-                                                            @RequestParam(name = "available", required = false) Boolean available,
-                                                            @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
-                                                            @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getEventsWhereParticipant(@RequestHeader("X-EWM-User-Id") long followerId,
+                                                                            @PathVariable(name = "userId") Long userId,
+                                                                            @RequestParam(name = "state") String stateString,
+                                                                            @RequestParam(name = "rangeStart", required = false) String start,
+                                                                            @RequestParam(name = "rangeEnd", required = false) String end,
+                                                                            @RequestParam(name = "available", required = false) Boolean available,
+                                                                            @RequestParam(name = "from", defaultValue = "0") @PositiveOrZero Integer from,
+                                                                            @RequestParam(name = "size", defaultValue = "10") @Positive Integer size) {
         EventState state = EventState.from(stateString)
                 .orElseThrow(() -> new UnknownEnumElementException(stateString));
         dateValidation(start, end);
@@ -135,14 +138,14 @@ public class PrivateController {
     }
 
     @GetMapping("/{userId}/events/creator")
-    public ResponseEntity<Object> getEventsWhereCreator(@RequestHeader("X-EWM-User-Id") long followerId,
-                                                        @PathVariable(name = "userId") Long userId,
-                                                        @RequestParam(name = "state") String stateString,
-                                                        @RequestParam(name = "rangeStart", required = false) String start,
-                                                        @RequestParam(name = "rangeEnd", required = false) String end,
-                                                        @RequestParam(name = "available", required = false) Boolean available,
-                                                        @RequestParam(name = "from", defaultValue = "0") int from,
-                                                        @RequestParam(name = "size", defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getEventsWhereCreator(@RequestHeader("X-EWM-User-Id") long followerId,
+                                                                        @PathVariable(name = "userId") Long userId,
+                                                                        @RequestParam(name = "state") String stateString,
+                                                                        @RequestParam(name = "rangeStart", required = false) String start,
+                                                                        @RequestParam(name = "rangeEnd", required = false) String end,
+                                                                        @RequestParam(name = "available", required = false) Boolean available,
+                                                                        @RequestParam(name = "from", defaultValue = "0") int from,
+                                                                        @RequestParam(name = "size", defaultValue = "10") int size) {
         EventState state = EventState.from(stateString).orElseThrow(() -> new UnknownEnumElementException(stateString));
         dateValidation(start, end);
 
@@ -2,8 +2,11 @@ package ru.practicum.explorewithme.priv;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.explorewithme.clients.server.priv.SubscriptionClient;
 import ru.practicum.explorewithme.exceptions.UnknownEnumElementException;
 import ru.practicum.explorewithme.models.subscription.NewSubscriptionRequest;
@@ -20,36 +23,36 @@ public class PrivateSubscriptionController {
     private final SubscriptionClient client;
 
     @PostMapping("/subscriptions/{publisherId}/subscribe")
-    public ResponseEntity<Object> addSubscribe(@RequestHeader("X-EWM-User-Id") Long userId,
-                                               @PathVariable(name = "publisherId") Long publisherId,
-                                               @RequestBody @Valid NewSubscriptionRequest request) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addSubscribe(@RequestHeader("X-EWM-User-Id") Long userId,
+                                                               @PathVariable(name = "publisherId") Long publisherId,
+                                                               @RequestBody @Valid NewSubscriptionRequest request) {
         return client.addSubscribe(userId, publisherId, request);
     }
 
     @GetMapping("/subscriptions/{subscriptionId}")
-    public ResponseEntity<Object> getSubscription(@RequestHeader("X-EWM-User-Id") Long userId,
-                                                  @PathVariable(name = "subscriptionId") Long subscriptionId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getSubscription(@RequestHeader("X-EWM-User-Id") Long userId,
+                                                                  @PathVariable(name = "subscriptionId") Long subscriptionId) {
         return client.getSubscription(userId, subscriptionId);
     }
 
     @PatchMapping("/subscriptions/{subscriptionId}/cancel")
-    public ResponseEntity<Object> cancelSubscription(@RequestHeader("X-EWM-User-Id") Long userId,
-                                                     @PathVariable(name = "subscriptionId") Long subscriptionId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> cancelSubscription(@RequestHeader("X-EWM-User-Id") Long userId,
+                                                                     @PathVariable(name = "subscriptionId") Long subscriptionId) {
         return client.cancelSubscription(userId, subscriptionId);
     }
 
     @PatchMapping("/subscriptions/{subscriptionId}/accept")
-    public ResponseEntity<Object> acceptSubscribe(@RequestHeader("X-EWM-User-Id") Long userId,
-                                                  @PathVariable(name = "subscriptionId") Long subscriptionId,
-                                                  @RequestParam(name = "friendship") Boolean friendship) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> acceptSubscribe(@RequestHeader("X-EWM-User-Id") Long userId,
+                                                                  @PathVariable(name = "subscriptionId") Long subscriptionId,
+                                                                  @RequestParam(name = "friendship") Boolean friendship) {
         return client.acceptSubscribe(userId, subscriptionId, friendship);
     }
 
     @GetMapping("/subscriptions/incoming")
-    public ResponseEntity<Object> getIncomingSubscriptions(@RequestHeader("X-EWM-User-Id") Long userId,
-                                                           @RequestParam(name = "status", required = false) String stringStatus,
-                                                           @RequestParam(name = "from", defaultValue = "0") int from,
-                                                           @RequestParam(name = "size", defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getIncomingSubscriptions(@RequestHeader("X-EWM-User-Id") Long userId,
+                                                                           @RequestParam(name = "status", required = false) String stringStatus,
+                                                                           @RequestParam(name = "from", defaultValue = "0") int from,
+                                                                           @RequestParam(name = "size", defaultValue = "10") int size) {
         SubscriptionStatus status;
         if (stringStatus == null) {
             status = null;
@@ -61,10 +64,10 @@ public class PrivateSubscriptionController {
     }
 
     @GetMapping("/subscriptions/outgoing")
-    public ResponseEntity<Object> getOutgoingSubscriptions(@RequestHeader("X-EWM-User-Id") Long userId,
-                                                           @RequestParam(name = "status", required = false) String stringStatus,
-                                                           @RequestParam(name = "from", defaultValue = "0") int from,
-                                                           @RequestParam(name = "size", defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getOutgoingSubscriptions(@RequestHeader("X-EWM-User-Id") Long userId,
+                                                                           @RequestParam(name = "status", required = false) String stringStatus,
+                                                                           @RequestParam(name = "from", defaultValue = "0") int from,
+                                                                           @RequestParam(name = "size", defaultValue = "10") int size) {
         SubscriptionStatus status;
         if (stringStatus == null) {
             status = null;
@@ -80,13 +83,13 @@ public class PrivateSubscriptionController {
     }
 
     @PostMapping("/groups")
-    public ResponseEntity<Object> addNewGroup(@RequestHeader("X-EWM-User-Id") Long userId,
-                                              @RequestBody NewGroupDto groupDto) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addNewGroup(@RequestHeader("X-EWM-User-Id") Long userId,
+                                                              @RequestBody NewGroupDto groupDto) {
         return client.addNewGroup(userId, groupDto);
     }
 
     @GetMapping("/groups")
-    public ResponseEntity<Object> getGroups(@RequestHeader("X-EWM-User-Id") Long userId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getGroups(@RequestHeader("X-EWM-User-Id") Long userId) {
         return client.getGroups(userId);
     }
 }
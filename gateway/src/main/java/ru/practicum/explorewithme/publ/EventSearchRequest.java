@@ -0,0 +1,26 @@
+package ru.practicum.explorewithme.publ;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Параметры публичного поиска событий из строки запроса GET /events. sort и facets - строки: неизвестные
+ * значения отклоняются контроллером с UnknownEnumElementException.
+ */
+@Data
+public class EventSearchRequest {
+    private String text;
+    private int[] categories;
+    private Boolean paid;
+    private String rangeStart;
+    private String rangeEnd;
+    private Boolean available;
+    private Double lat;
+    private Double lon;
+    private Double radius;
+    private String sort = "EVENT_DATE";
+    private int from = 0;
+    private int size = 10;
+    private List<String> facets;
+}
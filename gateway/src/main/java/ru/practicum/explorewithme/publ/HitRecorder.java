@@ -0,0 +1,68 @@
+package ru.practicum.explorewithme.publ;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import ru.practicum.explorewithme.clients.stat.StatClient;
+import ru.practicum.explorewithme.models.statistics.EndpointHit;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Копит просмотры событий в очереди и пачками отправляет их в stats-server, не задерживая ответ клиенту.
+ * При переполнении очереди или недоступности stats-server просмотры теряются, запросы пользователей не страдают.
+ */
+@Component
+@Slf4j
+public class HitRecorder {
+    private static final String APP = "gateway";
+
+    private final StatClient statClient;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    private final BlockingQueue<EndpointHit> queue;
+
+    public HitRecorder(StatClient statClient,
+                       @Value("${stats.edge-hits.enabled}") boolean enabled,
+                       @Value("${stats.edge-hits.queue-capacity}") int queueCapacity,
+                       @Value("${stats.edge-hits.batch-size}") int batchSize) {
+        this.statClient = statClient;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(String uri, String ip) {
+        if (enabled && !queue.offer(new EndpointHit(APP, uri, ip, LocalDateTime.now()))) {
+            log.warn("Очередь просмотров переполнена, просмотр {} отброшен", uri);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${stats.edge-hits.flush-interval}")
+    @PreDestroy
+    public void flush() {
+        List<EndpointHit> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                statClient.addHits(batch);
+            } catch (RestClientException e) {
+                log.warn("Не удалось отправить {} просмотров в stats-server: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+}
@@ -3,19 +3,32 @@ package ru.practicum.explorewithme.publ;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.explorewithme.clients.server.PublicClient;
 import ru.practicum.explorewithme.exceptions.UnknownEnumElementException;
+import ru.practicum.explorewithme.models.event.EventFacet;
+import ru.practicum.explorewithme.models.event.EventShortDto;
 import ru.practicum.explorewithme.models.event.EventSort;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
+import static ru.practicum.explorewithme.config.ForwardedForFilter.clientIp;
 import static ru.practicum.explorewithme.validation.ValidUtil.dateValidation;
+import static ru.practicum.explorewithme.validation.ValidUtil.nearbyValidation;
 
 @RestController
 @AllArgsConstructor(onConstructor_ = @Autowired)
@@ -24,63 +37,114 @@ public class PublicController {
 
     private final PublicClient client;
 
+    private final HitRecorder hitRecorder;
+
     @GetMapping("/events")
-    public ResponseEntity<Object> getEvents(@RequestParam(name = "text", required = false) String text,
-                                            @RequestParam(name = "categories", required = false) int[] categories,
-                                            @RequestParam(name = "paid", required = false) Boolean paid,
-                                            @RequestParam(name = "rangeStart", required = false) String rangeStart,
-                                            @RequestParam(name = "rangeEnd", required = false) String rangeEnd,
-                                            @RequestParam(name = "available", required = false) Boolean available,
-                                            @RequestParam(name = "sort", defaultValue = "EVENT_DATE") String sort,
-                                            @RequestParam(name = "from", defaultValue = "0") int from,
-                                            @RequestParam(name = "size", defaultValue = "10") int size) {
-
-        EventSort sortType = EventSort.from(sort).orElseThrow(() ->
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getEvents(EventSearchRequest search, ServerWebExchange exchange) {
+        EventSort sortType = EventSort.from(search.getSort()).orElseThrow(() ->
                 new UnknownEnumElementException("Неизвестный тип сортировки"));
 
-        dateValidation(rangeStart, rangeEnd);
+        dateValidation(search.getRangeStart(), search.getRangeEnd());
+        nearbyValidation(search.getLat(), search.getLon(), search.getRadius(), sortType);
 
         Map<String, Object> parameters = new HashMap<>();
-        parameters.put("text", text);
-        parameters.put("categories", categories);
-        parameters.put("paid", paid);
-        parameters.put("rangeStart", rangeStart);
-        parameters.put("rangeEnd", rangeEnd);
-        parameters.put("available", available);
+        parameters.put("text", search.getText());
+        parameters.put("categories", search.getCategories());
+        parameters.put("paid", search.getPaid());
+        parameters.put("rangeStart", search.getRangeStart());
+        parameters.put("rangeEnd", search.getRangeEnd());
+        parameters.put("available", search.getAvailable());
+        parameters.put("lat", search.getLat());
+        parameters.put("lon", search.getLon());
+        parameters.put("radius", search.getRadius());
         parameters.put("sort", sortType);
-        parameters.put("from", from);
-        parameters.put("size", size);
+        parameters.put("from", search.getFrom());
+        parameters.put("size", search.getSize());
+        if (search.getFacets() != null) {
+            parameters.put("facets", search.getFacets().stream().map(facet -> EventFacet.from(facet).orElseThrow(() ->
+                    new UnknownEnumElementException(facet)).name()).collect(Collectors.joining(",")));
+        }
+
+        //тело ответа идет клиенту потоком, id событий для статистики берутся из заголовка ewm-service
+        Optional<String> ip = clientIp(exchange).filter(address -> hitRecorder.isEnabled());
+        return client.getEvents(parameters).map(response -> {
+            String eventIds = response.getHeaders().getFirst(EventShortDto.EVENT_IDS_HEADER);
+            if (ip.isPresent() && response.getStatusCode().is2xxSuccessful() && eventIds != null) {
+                recordEventHits(eventIds, ip.get());
+            }
+            return withoutEventIds(response);
+        });
+    }
 
-        return client.getEvents(parameters);
+    /**
+     * Подсказки при вводе: просмотры не записываются, события в ответе не открывались.
+     */
+    @GetMapping("/events/suggest")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getSuggestions(@RequestParam(name = "text") String text,
+                                                                 @RequestParam(name = "sort", defaultValue = "VIEWS") String sort,
+                                                                 @RequestParam(name = "size", defaultValue = "10") int size) {
+        EventSort sortType = EventSort.from(sort).filter(type -> type != EventSort.DISTANCE).orElseThrow(() ->
+                new UnknownEnumElementException("Неизвестный тип сортировки"));
+        return client.getSuggestions(text, sortType.name(), size);
     }
 
     @GetMapping("/events/{eventId}")
-    public ResponseEntity<Object> getEventById(@PathVariable(name = "eventId") long eventId) {
-        return client.getEventById(eventId);
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getEventById(@PathVariable(name = "eventId") long eventId,
+                                                             ServerWebExchange exchange) {
+        Optional<String> ip = clientIp(exchange);
+        return client.getEventById(eventId).doOnNext(response -> {
+            boolean viewed = response.getStatusCode().is2xxSuccessful()
+                    || response.getStatusCode() == HttpStatus.NOT_MODIFIED;
+            if (viewed && ip.isPresent()) {
+                hitRecorder.record("/events/" + eventId, ip.get());
+            }
+        });
     }
 
     @GetMapping("/compilations")
-    public ResponseEntity<Object> getCompilations(@RequestParam(name = "pinned", required = false) Boolean pinned,
-                                                  @RequestParam(name = "from", defaultValue = "0") int from,
-                                                  @RequestParam(name = "size", defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getCompilations(@RequestParam(name = "pinned", required = false) Boolean pinned,
+                                                                  @RequestParam(name = "from", defaultValue = "0") int from,
+                                                                  @RequestParam(name = "size", defaultValue = "10") int size) {
         return client.getCompilations(pinned, from, size);
     }
 
     @GetMapping("/compilations/{compilationId}")
-    public ResponseEntity<Object> getCompilationById(@PathVariable(name = "compilationId") Long compilationId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getCompilationById(@PathVariable(name = "compilationId") Long compilationId) {
         return client.getCompilationById(compilationId);
     }
 
     @GetMapping("/categories")
-    public ResponseEntity<Object> getCategories(@RequestParam(name = "from", defaultValue = "0") int from,
-                                                @RequestParam(name = "size", defaultValue = "10") int size) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getCategories(@RequestParam(name = "from", defaultValue = "0") int from,
+                                                                @RequestParam(name = "size", defaultValue = "10") int size) {
         return client.getCategories(from, size);
     }
 
     @GetMapping("/categories/{categoryId}")
-    public ResponseEntity<Object> getCategoryById(@PathVariable(name = "categoryId") Long categoryId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getCategoryById(@PathVariable(name = "categoryId") Long categoryId) {
         return client.getCategoryById(categoryId);
     }
 
+    /**
+     * Записывает просмотр каждого события страницы по списку id через запятую.
+     */
+    private void recordEventHits(String eventIds, String ip) {
+        for (String id : eventIds.split(",")) {
+            if (!id.isBlank()) {
+                hitRecorder.record("/events/" + id.trim(), ip);
+            }
+        }
+    }
 
+    /**
+     * Служебный заголовок ewm-service клиенту не передается.
+     */
+    private static ResponseEntity<Flux<DataBuffer>> withoutEventIds(ResponseEntity<Flux<DataBuffer>> response) {
+        if (!response.getHeaders().containsKey(EventShortDto.EVENT_IDS_HEADER)) {
+            return response;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.remove(EventShortDto.EVENT_IDS_HEADER);
+        return new ResponseEntity<>(response.getBody(), headers, response.getStatusCode());
+    }
 }
@@ -1,6 +1,8 @@
 package ru.practicum.explorewithme.validation;
 
+import org.springframework.web.server.ServerWebInputException;
 import ru.practicum.explorewithme.exceptions.IncorrectDateException;
+import ru.practicum.explorewithme.models.event.EventSort;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -20,4 +22,17 @@ public class ValidUtil {
             throw new IncorrectDateException("Введенные даты некорректны");
         }
     }
+
+    /**
+     * lat, lon и radius задаются вместе; сортировка DISTANCE - только с ними.
+     */
+    public static void nearbyValidation(Double lat, Double lon, Double radius, EventSort sort) {
+        boolean nearby = lat != null && lon != null && radius != null;
+        if (!nearby && (lat != null || lon != null || radius != null || sort == EventSort.DISTANCE)) {
+            throw new ServerWebInputException("Для поиска рядом нужны lat, lon и radius");
+        }
+        if (nearby && (Math.abs(lat) > 90 || Math.abs(lon) > 180 || radius <= 0)) {
+            throw new ServerWebInputException("Координаты или радиус некорректны");
+        }
+    }
 }
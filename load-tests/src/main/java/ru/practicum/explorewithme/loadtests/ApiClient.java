@@ -0,0 +1,77 @@
+package ru.practicum.explorewithme.loadtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Тонкая обертка над HttpClient для запросов к gateway.
+ */
+public class ApiClient {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    private final String baseUrl;
+
+    public ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public HttpResponse<String> get(String path, Long userId) throws IOException, InterruptedException {
+        return send(request(path, userId).GET());
+    }
+
+    public HttpResponse<String> post(String path, Long userId, String json) throws IOException, InterruptedException {
+        return send(request(path, userId).POST(body(json)));
+    }
+
+    public HttpResponse<String> patch(String path, Long userId) throws IOException, InterruptedException {
+        return send(request(path, userId).method("PATCH", HttpRequest.BodyPublishers.noBody()));
+    }
+
+    public JsonNode getJson(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = get(path, null);
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("GET " + path + " failed: " + response.statusCode());
+        }
+        return MAPPER.readTree(response.body());
+    }
+
+    /**
+     * Выполняет запрос подготовки данных и возвращает id созданной сущности.
+     */
+    public long create(String path, Long userId, String json) throws IOException, InterruptedException {
+        HttpResponse<String> response = json == null ? patch(path, userId) : post(path, userId, json);
+        JsonNode id = response.statusCode() / 100 == 2 ? MAPPER.readTree(response.body()).get("id") : null;
+        if (id == null) {
+            throw new IllegalStateException("Seeding request " + path + " failed: " + response.statusCode() + " "
+                    + response.body());
+        }
+        return id.asLong();
+    }
+
+    private HttpRequest.Builder request(String path, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT)
+                .header("Accept", "application/json");
+        if (userId != null) {
+            builder.header("X-EWM-User-Id", String.valueOf(userId));
+        }
+        return builder;
+    }
+
+    private static HttpRequest.BodyPublisher body(String json) {
+        return HttpRequest.BodyPublishers.ofString(json);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        return client.send(builder.header("Content-Type", "application/json").build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.explorewithme.loadtests;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Начальные данные прогона, созданные через API: категории, организаторы с опубликованными событиями и
+ * пользователи, каждый из которых подписан на одного организатора.
+ */
+public class Dataset {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final List<Long> categories = new ArrayList<>();
+    private final List<Long> organizers = new ArrayList<>();
+    private final List<Long> users = new ArrayList<>();
+    private final List<Long> events = new ArrayList<>();
+
+    public static Dataset seed(ApiClient api, LoadTestConfig config) throws IOException, InterruptedException {
+        Dataset dataset = new Dataset();
+        long started = System.nanoTime();
+
+        for (int i = 0; i < config.getInt("seed.categories"); i++) {
+            dataset.categories.add(api.create("/admin/categories", null, "{\"name\":\"Категория " + i + "\"}"));
+        }
+        for (int i = 0; i < config.getInt("seed.organizers"); i++) {
+            dataset.organizers.add(createUser(api, "organizer" + i));
+        }
+        for (int i = 0; i < config.getInt("seed.users"); i++) {
+            dataset.users.add(createUser(api, "user" + i));
+        }
+
+        String eventDate = LocalDateTime.now().plusDays(30).format(FORMATTER);
+        for (int i = 0; i < config.getInt("seed.events"); i++) {
+            long organizer = dataset.organizers.get(i % dataset.organizers.size());
+            long category = dataset.categories.get(i % dataset.categories.size());
+            String event = String.format("{\"annotation\":\"Нагрузочное событие номер %d\",\"category\":%d," +
+                    "\"description\":\"Описание нагрузочного события номер %d\",\"eventDate\":\"%s\"," +
+                    "\"location\":{\"lat\":55.75,\"lon\":37.62},\"paid\":%b,\"participantLimit\":0," +
+                    "\"requestModeration\":false,\"title\":\"Событие %d\"}", i, category, i, eventDate, i % 2 == 0, i);
+            long eventId = api.create("/users/" + organizer + "/events", organizer, event);
+            api.create("/admin/events/" + eventId + "/publish", null, null);
+            dataset.events.add(eventId);
+        }
+
+        for (int i = 0; i < dataset.users.size(); i++) {
+            long user = dataset.users.get(i);
+            long organizer = dataset.organizers.get(i % dataset.organizers.size());
+            api.create("/users/subscriptions/" + organizer + "/subscribe", user, "{\"friendship\":false}");
+        }
+
+        System.out.printf("Seeded %d categories, %d organizers, %d users, %d events in %d ms%n",
+                dataset.categories.size(), dataset.organizers.size(), dataset.users.size(), dataset.events.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        return dataset;
+    }
+
+    private static long createUser(ApiClient api, String name) throws IOException, InterruptedException {
+        return api.create("/admin/users", null, "{\"name\":\"" + name + "\",\"email\":\"" + name + "@load.test\"}");
+    }
+
+    public List<Long> getCategories() {
+        return categories;
+    }
+
+    public List<Long> getOrganizers() {
+        return organizers;
+    }
+
+    public List<Long> getUsers() {
+        return users;
+    }
+
+    public List<Long> getEvents() {
+        return events;
+    }
+}
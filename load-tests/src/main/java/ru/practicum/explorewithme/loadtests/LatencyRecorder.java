@@ -0,0 +1,55 @@
+package ru.practicum.explorewithme.loadtests;
+
+import java.util.Arrays;
+
+/**
+ * Латентности одной операции в микросекундах. Перцентили считаются по полной выборке после прогона.
+ */
+public class LatencyRecorder {
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    public synchronized void record(long latencyMicros, boolean success) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyMicros;
+        if (!success) {
+            errors++;
+        }
+    }
+
+    public synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Summary(count, errors, count / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                count == 0 ? 0 : sorted[count - 1]);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    public static class Summary {
+        final long count;
+        final long errors;
+        final double throughput;
+        final long p50;
+        final long p99;
+        final long max;
+
+        Summary(long count, long errors, double throughput, long p50, long p99, long max) {
+            this.count = count;
+            this.errors = errors;
+            this.throughput = throughput;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.max = max;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.explorewithme.loadtests;
+
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Открытая модель нагрузки: запросы назначаются по расписанию с целевой интенсивностью независимо от
+ * ответов сервиса. Латентность отсчитывается от запланированного момента, поэтому ожидание в очереди
+ * перегруженного клиента тоже попадает в перцентили.
+ */
+public class LoadRunner {
+    private final ApiClient api;
+    private final Dataset data;
+    private final LoadTestConfig config;
+
+    private final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> sequences = new EnumMap<>(Operation.class);
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    private final int totalWeight;
+
+    public LoadRunner(ApiClient api, Dataset data, LoadTestConfig config) {
+        this.api = api;
+        this.data = data;
+        this.config = config;
+
+        int total = 0;
+        for (Operation operation : Operation.values()) {
+            int weight = config.getInt("mix." + operation.getKey());
+            weights.put(operation, weight);
+            sequences.put(operation, new AtomicLong());
+            recorders.put(operation, new LatencyRecorder());
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Operation mix must have at least one positive weight");
+        }
+        totalWeight = total;
+    }
+
+    public Map<Operation, LatencyRecorder> run() throws InterruptedException {
+        int rps = config.getInt("rps");
+        long warmupNanos = TimeUnit.SECONDS.toNanos(config.getInt("warmup"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(config.getInt("duration"));
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rps;
+
+        ExecutorService workers = Executors.newFixedThreadPool(config.getInt("threads"));
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+
+        System.out.printf("Running %d rps: %ds warmup, %ds measurement%n", rps, config.getInt("warmup"),
+                config.getInt("duration"));
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long delay = scheduled - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            Operation operation = nextOperation();
+            boolean measured = scheduled >= measureFrom;
+            workers.execute(() -> execute(operation, scheduled, measured));
+        }
+
+        workers.shutdown();
+        if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+        }
+        return recorders;
+    }
+
+    private void execute(Operation operation, long scheduled, boolean measured) {
+        boolean success;
+        try {
+            HttpResponse<String> response = operation.execute(api, data, sequences.get(operation).getAndIncrement());
+            success = response.statusCode() / 100 == 2;
+        } catch (Exception e) {
+            success = false;
+        }
+        if (measured) {
+            recorders.get(operation).record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled), success);
+        }
+    }
+
+    private Operation nextOperation() {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            ticket -= weight.getValue();
+            if (ticket < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Operation mix is empty");
+    }
+}
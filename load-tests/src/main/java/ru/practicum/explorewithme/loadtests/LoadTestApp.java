@@ -0,0 +1,119 @@
+package ru.practicum.explorewithme.loadtests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Поднимает заглушку stats-server, ewm-service на H2 и gateway, наполняет данные через API, прогоняет смесь
+ * операций с заданной интенсивностью и печатает p50/p99 и пропускную способность по каждому эндпоинту.
+ */
+public class LoadTestApp {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig();
+        Path report = config.resolve("report");
+        Path logDir = report.getParent();
+
+        int statsPort = config.getInt("port.stats");
+        int ewmPort = config.getInt("port.ewm");
+        int gatewayPort = config.getInt("port.gateway");
+        String jvmOptions = config.getString("jvm-options");
+        String javaHomeSetting = config.getString("java-home");
+        Path javaHome = Path.of(javaHomeSetting.isEmpty() ? System.getProperty("java.home") : javaHomeSetting);
+        String virtualThreads = config.getString("virtual-threads");
+        System.out.printf("Services run on %s, virtual threads: %s%n", javaHome, virtualThreads);
+
+        StubStatsServer stats = new StubStatsServer(statsPort);
+        List<ServiceProcess> services = new ArrayList<>();
+        try {
+            stats.start();
+
+            ServiceProcess ewm = ServiceProcess.start("ewm-service", javaHome, config.resolve("jar.ewm"), jvmOptions,
+                    ewmPort,
+                    Map.of("SPRING_DATASOURCE_URL", "jdbc:h2:mem:ewm;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                    + "DEFAULT_NULL_ORDERING=HIGH",
+                            "SPRING_DATASOURCE_USER", "sa",
+                            "SPRING_DATASOURCE_PASSWORD", "",
+                            "SPRING_DATASOURCE_DRIVERCLASSNAME", "org.h2.Driver",
+                            "SPRING_JPA_PROPERTIES_HIBERNATE_DIALECT", "org.hibernate.dialect.H2Dialect",
+                            "STAT_SERVICE_URL", "http://localhost:" + statsPort,
+                            "VIRTUAL_THREADS", virtualThreads,
+                            "SPRING_PROFILES_ACTIVE", "load-test"),
+                    logDir);
+            services.add(ewm);
+            ServiceProcess gateway = ServiceProcess.start("gateway", javaHome, config.resolve("jar.gateway"),
+                    jvmOptions, gatewayPort, Map.of("EWM_SERVICE_URL", "http://localhost:" + ewmPort,
+                            "STAT_SERVICE_URL", "http://localhost:" + statsPort,
+                            "SPRING_PROFILES_ACTIVE", "load-test"), logDir);
+            services.add(gateway);
+
+            ewm.awaitPort(ewmPort, 120);
+            gateway.awaitPort(gatewayPort, 120);
+
+            ApiClient api = new ApiClient("http://localhost:" + gatewayPort);
+            Dataset dataset = Dataset.seed(api, config);
+
+            Map<Operation, LatencyRecorder> results = new LoadRunner(api, dataset, config).run();
+            printReport(results, config.getInt("duration"), report);
+            System.out.printf("Stub stats-server received %d hits%n", stats.getTotalHits());
+            Map<ServiceProcess, Integer> ports = new LinkedHashMap<>();
+            ports.put(gateway, gatewayPort);
+            ports.put(ewm, ewmPort);
+            printResources(ports);
+        } finally {
+            for (ServiceProcess service : services) {
+                service.stop();
+            }
+            stats.stop();
+        }
+    }
+
+    private static void printResources(Map<ServiceProcess, Integer> services) {
+        System.out.printf("%n%-12s %14s %14s %12s%n", "service", "peak RSS MB", "heap used MB", "peak threads");
+        for (Map.Entry<ServiceProcess, Integer> service : services.entrySet()) {
+            ApiClient actuator = new ApiClient("http://localhost:" + service.getValue());
+            double heap = metric(actuator, "jvm.memory.used?tag=area:heap") / (1024 * 1024);
+            double threads = metric(actuator, "jvm.threads.peak");
+            long rss = service.getKey().peakRssKb();
+            System.out.printf(Locale.ROOT, "%-12s %14s %14.1f %12.0f%n", service.getKey().getName(),
+                    rss < 0 ? "n/a" : String.valueOf(rss / 1024), heap, threads);
+        }
+    }
+
+    private static double metric(ApiClient actuator, String name) {
+        try {
+            return actuator.getJson("/actuator/metrics/" + name).get("measurements").get(0).get("value").asDouble();
+        } catch (Exception e) {
+            return Double.NaN;
+        }
+    }
+
+    private static void printReport(Map<Operation, LatencyRecorder> results, int seconds, Path report)
+            throws IOException {
+        List<String> csv = new ArrayList<>();
+        csv.add("endpoint,count,errors,throughput_rps,p50_ms,p99_ms,max_ms");
+
+        System.out.printf("%n%-42s %8s %7s %10s %9s %9s %9s%n", "endpoint", "count", "errors", "rps", "p50 ms",
+                "p99 ms", "max ms");
+        for (Map.Entry<Operation, LatencyRecorder> result : results.entrySet()) {
+            LatencyRecorder.Summary summary = result.getValue().summarize(seconds);
+            if (summary.count == 0) {
+                continue;
+            }
+            String endpoint = result.getKey().getEndpoint();
+            System.out.printf(Locale.ROOT, "%-42s %8d %7d %10.1f %9.2f %9.2f %9.2f%n", endpoint, summary.count,
+                    summary.errors, summary.throughput, summary.p50 / 1000.0, summary.p99 / 1000.0, summary.max / 1000.0);
+            csv.add(String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f", endpoint, summary.count, summary.errors,
+                    summary.throughput, summary.p50 / 1000.0, summary.p99 / 1000.0, summary.max / 1000.0));
+        }
+
+        Files.write(report, csv);
+        System.out.println("Report written to " + report);
+    }
+}
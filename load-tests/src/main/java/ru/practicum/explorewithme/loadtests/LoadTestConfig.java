@@ -0,0 +1,47 @@
+package ru.practicum.explorewithme.loadtests;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Параметры прогона: значения из load-test.properties, переопределяемые системными свойствами.
+ */
+public class LoadTestConfig {
+    private static final String PREFIX = "loadtest.";
+
+    private final Properties properties = new Properties();
+
+    public LoadTestConfig() {
+        try (InputStream defaults = LoadTestConfig.class.getResourceAsStream("/load-test.properties")) {
+            properties.load(defaults);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(PREFIX))
+                .forEach(name -> properties.setProperty(name, System.getProperty(name)));
+    }
+
+    public String getString(String name) {
+        String value = properties.getProperty(PREFIX + name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing load test property " + PREFIX + name);
+        }
+        return value.trim();
+    }
+
+    public int getInt(String name) {
+        return Integer.parseInt(getString(name));
+    }
+
+    public Path getRoot() {
+        return Path.of(properties.getProperty(PREFIX + "root", ".")).toAbsolutePath().normalize();
+    }
+
+    public Path resolve(String name) {
+        return getRoot().resolve(getString(name));
+    }
+}
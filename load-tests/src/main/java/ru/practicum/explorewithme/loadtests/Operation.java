@@ -0,0 +1,88 @@
+package ru.practicum.explorewithme.loadtests;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Операции нагрузочной смеси. Вес операции задается свойством loadtest.mix.&lt;key&gt;.
+ * Заявки на участие и подписки перебирают пары пользователь-событие (организатор) по порядковому номеру
+ * операции, поэтому до исчерпания пар не упираются в ограничение повторной заявки.
+ */
+public enum Operation {
+    SEARCH("search", "GET /events") {
+        @Override
+        HttpResponse<String> execute(ApiClient api, Dataset data, long sequence) throws IOException, InterruptedException {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String path = "/events?categories=" + pick(data.getCategories()) + "," + pick(data.getCategories())
+                    + "&available=true&sort=EVENT_DATE&from=0&size=10";
+            if (random.nextBoolean()) {
+                path += "&paid=" + random.nextBoolean();
+            }
+            return api.get(path, null);
+        }
+    },
+    VIEW("view", "GET /events/{id}") {
+        @Override
+        HttpResponse<String> execute(ApiClient api, Dataset data, long sequence) throws IOException, InterruptedException {
+            return api.get("/events/" + pick(data.getEvents()), null);
+        }
+    },
+    SIGNUP("signup", "POST /users/{id}/requests") {
+        @Override
+        HttpResponse<String> execute(ApiClient api, Dataset data, long sequence) throws IOException, InterruptedException {
+            List<Long> users = data.getUsers();
+            long user = users.get((int) (sequence % users.size()));
+            long event = data.getEvents().get((int) (sequence / users.size() % data.getEvents().size()));
+            return api.post("/users/" + user + "/requests?eventId=" + event, user, "");
+        }
+    },
+    SUBSCRIBE("subscribe", "POST /users/subscriptions/{id}/subscribe") {
+        @Override
+        HttpResponse<String> execute(ApiClient api, Dataset data, long sequence) throws IOException, InterruptedException {
+            List<Long> users = data.getUsers();
+            List<Long> organizers = data.getOrganizers();
+            int userIndex = (int) (sequence % users.size());
+            int shift = 1 + (int) (sequence / users.size() % Math.max(1, organizers.size() - 1));
+            long organizer = organizers.get((userIndex + shift) % organizers.size());
+            return api.post("/users/subscriptions/" + organizer + "/subscribe", users.get(userIndex),
+                    "{\"friendship\":false}");
+        }
+    },
+    FOLLOWERS("followers", "GET /users/followers") {
+        @Override
+        HttpResponse<String> execute(ApiClient api, Dataset data, long sequence) throws IOException, InterruptedException {
+            return api.get("/users/followers?friends=false&from=0&size=20", pick(data.getOrganizers()));
+        }
+    },
+    FEED("feed", "GET /users/feed") {
+        @Override
+        HttpResponse<String> execute(ApiClient api, Dataset data, long sequence) throws IOException, InterruptedException {
+            return api.get("/users/feed?size=20", pick(data.getUsers()));
+        }
+    };
+
+    private final String key;
+    private final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    abstract HttpResponse<String> execute(ApiClient api, Dataset data, long sequence)
+            throws IOException, InterruptedException;
+
+    private static long pick(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.explorewithme.loadtests;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Заглушка stats-server: считает хиты по uri в памяти и отдает их в формате GET /stats, чтобы нагрузка на
+ * ewm-service не зависела от производительности сервиса статистики и его базы.
+ */
+public class StubStatsServer {
+    private static final Pattern URI_FIELD = Pattern.compile("\"uri\"\\s*:\\s*\"([^\"]*)\"");
+
+    private final Map<String, LongAdder> hits = new ConcurrentHashMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    public StubStatsServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/hit", this::handleHit);
+        server.createContext("/stats", this::handleStats);
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public long getTotalHits() {
+        return hits.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private void handleHit(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Matcher matcher = URI_FIELD.matcher(body);
+        while (matcher.find()) {
+            hits.computeIfAbsent(matcher.group(1), uri -> new LongAdder()).increment();
+        }
+        respond(exchange, body);
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String param : query.split("&")) {
+                if (!param.startsWith("uris=")) {
+                    continue;
+                }
+                String uris = URLDecoder.decode(param.substring("uris=".length()), StandardCharsets.UTF_8);
+                for (String uri : uris.split(",")) {
+                    LongAdder counter = hits.get(uri);
+                    if (json.length() > 1) {
+                        json.append(',');
+                    }
+                    json.append("{\"app\":\"server\",\"uri\":\"").append(uri).append("\",\"hits\":")
+                            .append(counter == null ? 0 : counter.sum()).append('}');
+                }
+            }
+        }
+        respond(exchange, json.append(']').toString());
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.explorewithme.models.event;
+
+import java.util.Optional;
+
+/**
+ * Поле, по которому публичный поиск событий может вернуть число подходящих событий на каждое значение.
+ */
+public enum EventFacet {
+    CATEGORY,
+    PAID;
+
+    public static Optional<EventFacet> from(String facetString) {
+        for (EventFacet facet : values()) {
+            if (facet.name().equalsIgnoreCase(facetString)) {
+                return Optional.of(facet);
+            }
+        }
+        return Optional.empty();
+    }
+}
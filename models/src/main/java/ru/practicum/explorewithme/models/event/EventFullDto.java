@@ -45,4 +45,6 @@ public class EventFullDto {
     private String title;
 
     private long views;
+
+    private boolean viewsStale;
 }
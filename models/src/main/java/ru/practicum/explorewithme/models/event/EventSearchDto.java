@@ -0,0 +1,21 @@
+package ru.practicum.explorewithme.models.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Страница публичного поиска с фасетами: для каждого запрошенного поля - число событий на значение (id категории,
+ * true/false для paid) при остальных условиях поиска.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSearchDto {
+    private List<EventShortDto> events;
+
+    private Map<String, Map<String, Long>> facets;
+}
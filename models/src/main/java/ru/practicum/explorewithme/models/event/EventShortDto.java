@@ -11,6 +11,12 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 public class EventShortDto implements Comparable<EventShortDto> {
+    /**
+     * Заголовок ответа на список событий: id событий страницы через запятую. По нему gateway записывает просмотры,
+     * не разбирая тело ответа.
+     */
+    public static final String EVENT_IDS_HEADER = "X-EWM-Event-Ids";
+
     private long id;
 
     private String annotation;
@@ -30,6 +36,8 @@ public class EventShortDto implements Comparable<EventShortDto> {
 
     private long views;
 
+    private boolean viewsStale;
+
     @Override
     public int compareTo(EventShortDto o) {
         return Long.compare(this.getViews(), o.getViews());
@@ -5,7 +5,8 @@ import java.util.Optional;
 
 public enum EventSort {
     EVENT_DATE,
-    VIEWS;
+    VIEWS,
+    DISTANCE;
 
     public static Optional<EventSort> from(String param) {
         return Arrays.stream(EventSort.values()).filter(sort -> sort.toString().equals(param.toUpperCase())).findAny();
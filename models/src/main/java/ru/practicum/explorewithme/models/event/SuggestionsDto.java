@@ -0,0 +1,21 @@
+package ru.practicum.explorewithme.models.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.explorewithme.models.category.CategoryDto;
+
+import java.util.List;
+
+/**
+ * Подсказки по началу слова: категории с подходящим названием и опубликованные предстоящие события
+ * с подходящим названием.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionsDto {
+    private List<CategoryDto> categories;
+
+    private List<EventSuggestionDto> events;
+}
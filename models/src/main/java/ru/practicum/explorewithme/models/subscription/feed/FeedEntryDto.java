@@ -0,0 +1,24 @@
+package ru.practicum.explorewithme.models.subscription.feed;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.explorewithme.models.event.EventShortDto;
+import ru.practicum.explorewithme.models.user.UserShortDto;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class FeedEntryDto {
+    private long id;
+
+    private FeedEntryKind kind;
+
+    private UserShortDto actor;
+
+    private EventShortDto event;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime created;
+}
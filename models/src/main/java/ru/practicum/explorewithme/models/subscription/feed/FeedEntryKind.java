@@ -0,0 +1,6 @@
+package ru.practicum.explorewithme.models.subscription.feed;
+
+public enum FeedEntryKind {
+    PARTICIPATION,
+    PUBLICATION
+}
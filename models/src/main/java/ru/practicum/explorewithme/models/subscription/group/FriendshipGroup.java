@@ -4,7 +4,8 @@ import java.util.Optional;
 
 public enum FriendshipGroup {
     FOLLOWER,
-    FRIENDS_ALL;
+    FRIENDS_ALL,
+    CUSTOM;
 
     public static Optional<FriendshipGroup> from(String stringGroup) {
         for (FriendshipGroup group : values()) {
@@ -0,0 +1,31 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Переводит stats.id с identity на последовательность с шагом 50, чтобы пакеты хитов из /hit/batch
+ * вставлялись JDBC-батчами. Последовательность начинается с max(id) + 50, существующие id остаются как есть.
+ */
+public class V2__Use_sequence_ids extends BaseJavaMigration {
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long maxId;
+            try (ResultSet rs = statement.executeQuery("select coalesce(max(id), 0) from stats")) {
+                rs.next();
+                maxId = rs.getLong(1);
+            }
+            statement.execute("alter table stats alter column id drop identity");
+            statement.execute("create sequence stats_id_seq start with " + (maxId + ALLOCATION_SIZE)
+                    + " increment by " + ALLOCATION_SIZE);
+            statement.execute("alter table stats alter column id set default nextval('stats_id_seq')");
+        }
+    }
+}
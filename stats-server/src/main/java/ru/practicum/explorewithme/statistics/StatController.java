@@ -25,6 +25,12 @@ public class StatController {
         return service.saveStats(hit);
     }
 
+    @PostMapping("/hit/batch")
+    public void saveStatsBatch(@RequestBody List<EndpointHit> hits) {
+        log.info("Добавлено {} endpoint", hits.size());
+        service.saveStats(hits);
+    }
+
     @GetMapping("/stats")
     public List<ViewStats> getStats(@RequestParam(name = "uris", required = false) String[] uris,
                                     @RequestParam(name = "unique", defaultValue = "false") Boolean unique,
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class Statistic {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stats_id_seq")
+    @SequenceGenerator(name = "stats_id_seq", sequenceName = "stats_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "app")
@@ -11,8 +11,8 @@ public class StatisticMapper {
     public static Statistic toStatistic(EndpointHit endpointHit) {
         String[] path = endpointHit.getUri().split("/");
         long eventId = Long.parseLong(path[path.length - 1]);
-        return new Statistic(endpointHit.getApp(), endpointHit.getUri(), endpointHit.getIp(), LocalDateTime.now(),
-                eventId);
+        LocalDateTime timestamp = endpointHit.getTimestamp() != null ? endpointHit.getTimestamp() : LocalDateTime.now();
+        return new Statistic(endpointHit.getApp(), endpointHit.getUri(), endpointHit.getIp(), timestamp, eventId);
     }
 
     public static EndpointHit toEndpointHit(Statistic statistic) {
@@ -9,5 +9,7 @@ import java.util.List;
 public interface StatsService {
     EndpointHit saveStats(EndpointHit endpointHit);
 
+    void saveStats(List<EndpointHit> endpointHits);
+
     List<ViewStats> getStats(String queryString, String[] uris, boolean unique) throws UnsupportedEncodingException;
 }
@@ -34,6 +34,11 @@ public class StatsServiceImpl implements StatsService {
         return toEndpointHit(repository.save(statistic));
     }
 
+    @Override
+    public void saveStats(List<EndpointHit> endpointHits) {
+        repository.saveAll(endpointHits.stream().map(StatisticMapper::toStatistic).collect(Collectors.toList()));
+    }
+
     @Override
     public List<ViewStats> getStats(String queryString, String[] uris, boolean unique)
             throws UnsupportedEncodingException {